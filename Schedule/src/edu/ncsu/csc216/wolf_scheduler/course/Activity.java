@@ -1,5 +1,6 @@
 package edu.ncsu.csc216.wolf_scheduler.course;
 
+import java.util.ArrayList;
 import java.util.Objects;
 
 /**
@@ -19,44 +20,85 @@ public abstract class Activity implements Conflict {
 	 */
 	@Override
 	public void checkConflict(Activity possibleConflictingActivity) throws ConflictException {
-		
-		//First we want to iterate through the activity meeting days to make sure the class is not arranged. 
-		//Then after iterating through we can use an if statement to see if the end time and start times conflict
-		for (int i = 0; i < this.meetingDays.length(); i++) {
-			if ("A".equals(this.getMeetingDays())) {
-				break;
+		if (conflictsWith(possibleConflictingActivity)) {
+			throw new ConflictException();
+		}
+	}
+
+	/**
+	 * Checks for a conflict without throwing. Two activities conflict when they
+	 * share a meeting day and their times overlap, where touching end points count
+	 * as an overlap. Arranged activities have no meeting day bits so they never
+	 * conflict.
+	 * 
+	 * @param possibleConflictingActivity activity to check against
+	 * @return true if checkConflict() would throw
+	 */
+	@Override
+	public boolean conflictsWith(Activity possibleConflictingActivity) {
+		//a single AND finds out if the two share any meeting day
+		if ((this.meetingDayMask & possibleConflictingActivity.meetingDayMask) == 0) {
+			return false;
+		}
+		return timesConflict(this.startTime, this.endTime, possibleConflictingActivity.startTime,
+				possibleConflictingActivity.endTime);
+	}
+
+	/**
+	 * Returns the first activity in the list that conflicts with this one. Nothing
+	 * is thrown, so probing many activities costs no exceptions.
+	 * 
+	 * @param activities activities to check against, such as a schedule
+	 * @return the first conflicting activity in list order, or null if there is none
+	 */
+	@Override
+	public Activity findConflict(ArrayList<? extends Activity> activities) {
+		for (int i = 0; i < activities.size(); i++) {
+			if (conflictsWith(activities.get(i))) {
+				return activities.get(i);
 			}
-			//we can compare the index to -1 to make sure the array is not null
-			if (possibleConflictingActivity.getMeetingDays().indexOf(this.meetingDays.charAt(i)) != -1) {
-				//now we can compare start and end times
-				//the first one we throw is if possible start time is greater than activity start time and ends before activity end time does
-				//if it was true than a conflict is certain and exception should be thrown
-				if (possibleConflictingActivity.startTime >= this.startTime && possibleConflictingActivity.endTime <= this.endTime) {
-					throw new ConflictException();
-				}
-				//next we throw a conflict exception for if the start time for the activity is greater than possible start time and 
-				//if activity end before possible end time
-				//this ensures commutative property
-				if (this.startTime >= possibleConflictingActivity.startTime && this.endTime <= possibleConflictingActivity.endTime) {
-					throw new ConflictException();
-				}
-				
-				//We could say PCA start and end time is 1200-1300 and this.startandendtime is 1100-1230 to make sense of this if
-				//statement condition
-				if(possibleConflictingActivity.endTime >= this.startTime && this.endTime >= possibleConflictingActivity.startTime) {
-					throw new ConflictException();
-				}
-				
-				//We also need to ask if end time is greater than PCA start time to ensure commutative property as well as PCA end time
-				//being greater than start time (which is ok on its own)
-				//So for example: if PCA was 1200-1400 and activity was 1300-1430
-				if(this.endTime >= possibleConflictingActivity.startTime && possibleConflictingActivity.endTime >= this.startTime) {
-					throw new ConflictException();
-				}
+		}
+		return null;
+	}
+
+	/**
+	 * Checks if two meeting times on the same day conflict. The times overlap if
+	 * each starts no later than the other ends. A time with its end minutes before
+	 * its start minutes in the same hour is allowed, so a time that lies inside
+	 * the other on both ends also conflicts even if that test misses it.
+	 * 
+	 * @param startTime      start of the first time
+	 * @param endTime        end of the first time
+	 * @param otherStartTime start of the second time
+	 * @param otherEndTime   end of the second time
+	 * @return true if the times conflict
+	 */
+	public static boolean timesConflict(int startTime, int endTime, int otherStartTime, int otherEndTime) {
+		return otherEndTime >= startTime && endTime >= otherStartTime
+				|| otherStartTime >= startTime && otherEndTime <= endTime
+				|| startTime >= otherStartTime && endTime <= otherEndTime;
+	}
+
+	/**
+	 * Returns the bit mask of the given meeting days, with one bit per day letter
+	 * in the order of MEETING_DAY_LETTERS. Arranged has no bits.
+	 * 
+	 * @param meetingDays meeting day letters
+	 * @return mask with the bit of every day set
+	 */
+	public static int meetingDayMask(String meetingDays) {
+		int mask = 0;
+		for (int i = 0; i < meetingDays.length(); i++) {
+			int day = MEETING_DAY_LETTERS.indexOf(meetingDays.charAt(i));
+			if (day >= 0) {
+				mask |= 1 << day;
 			}
 		}
+		return mask;
 	}
 
+	/** Meeting day letters in the order of their meeting day mask bits, lowest bit first */
+	public static final String MEETING_DAY_LETTERS = "MTWHFSU";
 	/** Maximum amount of hours according to military time */
 	private static final int UPPER_HOUR = 23;
 	/** Maximum amount of minutes in an hour */
@@ -78,6 +120,8 @@ public abstract class Activity implements Conflict {
 	private int startTime;
 	/** Course's ending time */
 	private int endTime;
+	/** Course's meeting days as a bit mask, computed whenever the meeting days are set */
+	private int meetingDayMask;
 
 	/**
 	 * Constructor for Activity class
@@ -93,6 +137,32 @@ public abstract class Activity implements Conflict {
 		setMeetingDaysAndTime(meetingDays, startTime, endTime);
 	}
 
+	/**
+	 * Constructor for subclasses that fill in already validated values through
+	 * setValidatedFields() instead of running the setter checks.
+	 */
+	Activity() {
+		super();
+	}
+
+	/**
+	 * Sets the title, meeting days, and times without checking them. Only used for
+	 * values that already passed the checks in the setters, such as activities
+	 * read back from a catalog snapshot.
+	 * 
+	 * @param title       title of activity
+	 * @param meetingDays meeting days for activity
+	 * @param startTime   starting time
+	 * @param endTime     end time
+	 */
+	void setValidatedFields(String title, String meetingDays, int startTime, int endTime) {
+		this.title = title;
+		this.meetingDays = meetingDays;
+		this.meetingDayMask = meetingDayMask(meetingDays);
+		this.startTime = startTime;
+		this.endTime = endTime;
+	}
+
 	/**
 	 * Displays the short version of the information available in scheduler GUI.
 	 * 
@@ -107,6 +177,14 @@ public abstract class Activity implements Conflict {
 	 */
 	public abstract String[] getLongDisplayArray();
 
+	/**
+	 * Appends the comma separated value record of the activity, the same text as
+	 * toString(), to the given builder without creating a String for it.
+	 * 
+	 * @param record builder to append the record to
+	 */
+	public abstract void appendRecord(StringBuilder record);
+
 	/**
 	 * Returns the Course's title.
 	 * 
@@ -124,13 +202,24 @@ public abstract class Activity implements Conflict {
 	 */
 	public void setTitle(String title) {
 
-		if (title == null || "".equals(title)) {
+		if (!isValidTitle(title)) {
 			throw new IllegalArgumentException("Invalid title.");
 		}
 
 		this.title = title;
 	}
 
+	/**
+	 * Checks a title without throwing. setTitle() throws exactly when this returns
+	 * false.
+	 * 
+	 * @param title the title to check
+	 * @return true if the title is not null or empty
+	 */
+	public static boolean isValidTitle(String title) {
+		return title != null && !"".equals(title);
+	}
+
 	/**
 	 * Returns the Course's meeting days.
 	 * 
@@ -149,6 +238,16 @@ public abstract class Activity implements Conflict {
 		return startTime;
 	}
 
+	/**
+	 * Returns the meeting days as a bit mask with one bit per day letter in the
+	 * order of MEETING_DAY_LETTERS. Arranged activities have a mask of zero.
+	 * 
+	 * @return the meeting day mask
+	 */
+	public int getMeetingDayMask() {
+		return meetingDayMask;
+	}
+
 	/**
 	 * Returns the Course's end time.
 	 * 
@@ -167,24 +266,42 @@ public abstract class Activity implements Conflict {
 	 */
 	public void setMeetingDaysAndTime(String meetingDays, int startTime, int endTime) {
 		
-		if (meetingDays == null || "".equals(meetingDays)) {
+		if (!hasValidMeetingDaysAndTime(meetingDays, startTime, endTime)) {
 			throw new IllegalArgumentException("Invalid meeting days and times.");
 		}
 		
+		this.meetingDays = meetingDays;
+		this.meetingDayMask = meetingDayMask(meetingDays);
+		this.startTime = startTime;
+		this.endTime = endTime;
+	}
+
+	/**
+	 * Checks the meeting days and times shared by every Activity without throwing.
+	 * setMeetingDaysAndTime() throws exactly when this returns false. Arranged
+	 * activities must have a start and end time of zero.
+	 * 
+	 * @param meetingDays days the Activity will meet
+	 * @param startTime   time the Activity will start
+	 * @param endTime     time the Activity will end
+	 * @return true if the meeting days and times are valid
+	 */
+	protected static boolean hasValidMeetingDaysAndTime(String meetingDays, int startTime, int endTime) {
+		
+		if (meetingDays == null || "".equals(meetingDays)) {
+			return false;
+		}
+		
 		if ("A".equals(meetingDays)) {
 			if (startTime != 0 || endTime != 0) {
-				throw new IllegalArgumentException("Invalid meeting days and times.");
+				return false;
 			}
-			
-			this.meetingDays = meetingDays;
-			this.startTime = 0;
-			this.endTime = 0;
 		}
 		
 		else {
 			
 			if(meetingDaysContainsInvalidCharacters(meetingDays)) {
-				throw new IllegalArgumentException("Invalid meeting days and times.");
+				return false;
 			}	
 		}
 		
@@ -194,28 +311,22 @@ public abstract class Activity implements Conflict {
 		int endMinute = militaryTimeToMinutes(endTime);
 		
 		if (startHour > endHour) {
-			throw new IllegalArgumentException("Invalid meeting days and times.");
+			return false;
 		}
 		
 		if (startHour < 0 || startHour >= UPPER_HOUR) {
-			throw new IllegalArgumentException("Invalid meeting days and times.");
+			return false;
 		}
 		
 		if (startMinute < 0 || startMinute >= UPPER_MINUTE) {
-			throw new IllegalArgumentException("Invalid meeting days and times.");
+			return false;
 		}
 
 		if (endHour < 0 || endHour >= UPPER_HOUR) {
-			throw new IllegalArgumentException("Invalid meeting days and times.");
+			return false;
 		}
 
-		if (endMinute < 0 || endMinute >= UPPER_MINUTE) {
-			throw new IllegalArgumentException("Invalid meeting days and times.");
-		}
-		
-		this.meetingDays = meetingDays;
-		this.startTime = startTime;
-		this.endTime = endTime;
+		return endMinute >= 0 && endMinute < UPPER_MINUTE;
 	}
 
 	/**
@@ -225,7 +336,7 @@ public abstract class Activity implements Conflict {
 	 * @param time time in military time
 	 * @return time hour in military time
 	 */
-	private int militaryTimeToHours(int time) {
+	private static int militaryTimeToHours(int time) {
 
 		return time / MILITARY_TIME_DIVIDE;
 
@@ -238,7 +349,7 @@ public abstract class Activity implements Conflict {
 	 * @param time time in military time
 	 * @return time minutes in military time
 	 */
-	private int militaryTimeToMinutes(int time) {
+	private static int militaryTimeToMinutes(int time) {
 		return time % MILITARY_TIME_DIVIDE;
 	}
 
@@ -250,7 +361,7 @@ public abstract class Activity implements Conflict {
 	 * @return true if meetingDays has invalid characters and false if no invalid
 	 *         characters are found.
 	 */
-	private boolean meetingDaysContainsInvalidCharacters(String meetingDays) {
+	private static boolean meetingDaysContainsInvalidCharacters(String meetingDays) {
 
 		boolean containsInvalidChar = false;
 
@@ -3,6 +3,8 @@
  */
 package edu.ncsu.csc216.wolf_scheduler.course;
 
+import java.util.ArrayList;
+
 /**
  * Finds conflicts in overlapping times for courses and events
  * 
@@ -19,4 +21,21 @@ public interface Conflict {
 	 * @throws ConflictException Exception that checks and throws in there are conflicting times
 	 */
 	void checkConflict(Activity possibleConflictingActivity) throws ConflictException;
+
+	/**
+	 * Checks for conflicting times without throwing, for callers that probe many
+	 * activities and only need the answer
+	 * 
+	 * @param possibleConflictingActivity activity object either a course or event
+	 * @return true if checkConflict() would throw ConflictException
+	 */
+	boolean conflictsWith(Activity possibleConflictingActivity);
+
+	/**
+	 * Finds the first activity in the list with conflicting times, without throwing
+	 * 
+	 * @param activities activities to check against, such as a schedule
+	 * @return the first conflicting activity in list order, or null if there is none
+	 */
+	Activity findConflict(ArrayList<? extends Activity> activities);
 }
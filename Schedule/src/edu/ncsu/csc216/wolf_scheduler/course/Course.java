@@ -4,6 +4,7 @@
 package edu.ncsu.csc216.wolf_scheduler.course;
 
 import java.util.Objects;
+import java.util.Set;
 
 /**
  * Class constructor for the WolfScheduler program. Creates a course objects
@@ -88,6 +89,81 @@ public class Course extends Activity {
 		this(name, title, section, credits, instructorId, meetingDays, 0, 0);
 	}
 
+	/**
+	 * Creates an empty Course whose fields are filled in by the TrustedFactory.
+	 */
+	private Course() {
+		super();
+	}
+
+	/**
+	 * Returns the factory that creates Courses without running any of the setter
+	 * checks. Only the catalog readers and the catalog column store, which only
+	 * ever hold values that already passed the checks, may have it; any other
+	 * caller is refused. Callers keep the factory in a private constant.
+	 * 
+	 * @return the unchecked Course factory
+	 * @throws IllegalStateException if the caller is not one of the trusted
+	 *                               catalog classes
+	 */
+	public static TrustedFactory trustedFactory() {
+		Class<?> caller = StackWalker.getInstance(StackWalker.Option.RETAIN_CLASS_REFERENCE).getCallerClass();
+		if (!TrustedFactory.TRUSTED_CALLERS.contains(caller.getName())) {
+			throw new IllegalStateException("Untrusted caller.");
+		}
+		return TrustedFactory.INSTANCE;
+	}
+
+	/**
+	 * Creates Courses from values that are already known to be valid without
+	 * running any of the setter checks. Used to rebuild a vetted catalog, such as
+	 * one read from a catalog snapshot or a line that passed the parser's checks,
+	 * where repeating the checks for every Course is wasted work. Only handed out
+	 * by Course.trustedFactory().
+	 */
+	public static final class TrustedFactory {
+
+		/** Classes allowed to create Courses without the setter checks */
+		private static final Set<String> TRUSTED_CALLERS = Set.of(
+				"edu.ncsu.csc216.wolf_scheduler.io.CourseLineParser",
+				"edu.ncsu.csc216.wolf_scheduler.io.CatalogSnapshotIO",
+				"edu.ncsu.csc216.wolf_scheduler.scheduler.CatalogColumns");
+		/** The only factory */
+		private static final TrustedFactory INSTANCE = new TrustedFactory();
+
+		/**
+		 * Creates the factory, only done once by Course.
+		 */
+		private TrustedFactory() {
+			// nothing to set up
+		}
+
+		/**
+		 * Creates a Course from values the public constructors would accept. The
+		 * values are not checked again.
+		 * 
+		 * @param name         name of the Course
+		 * @param title        title of the Course
+		 * @param section      section of the Course
+		 * @param credits      credit hours for Course
+		 * @param instructorId instructor's unity id
+		 * @param meetingDays  meeting days for Course as series of chars
+		 * @param startTime    start time for Course
+		 * @param endTime      end time for Course
+		 * @return the Course with the given values
+		 */
+		public Course create(String name, String title, String section, int credits, String instructorId,
+				String meetingDays, int startTime, int endTime) {
+			Course course = new Course();
+			course.setValidatedFields(title, meetingDays, startTime, endTime);
+			course.name = name;
+			course.section = section;
+			course.credits = credits;
+			course.instructorId = instructorId;
+			return course;
+		}
+	}
+
 	/**
 	 * Returns the Course's name.
 	 * 
@@ -108,12 +184,28 @@ public class Course extends Activity {
 	 */
 	private void setName(String name) {
 
-		if (name == null) {
+		if (!isValidName(name)) {
 			throw new IllegalArgumentException("Invalid course name.");
 		}
 
+		this.name = name;
+	}
+
+	/**
+	 * Checks a Course name without throwing. setName() throws exactly when this
+	 * returns false.
+	 * 
+	 * @param name the name to check
+	 * @return true if the name is letters, a space, and three digits
+	 */
+	public static boolean isValidName(String name) {
+
+		if (name == null) {
+			return false;
+		}
+
 		if (name.length() < MIN_NAME_LENGTH || name.length() > MAX_NAME_LENGTH) {
-			throw new IllegalArgumentException("Invalid course name.");
+			return false;
 		}
 
 		int letterAmount = 0;
@@ -124,29 +216,23 @@ public class Course extends Activity {
 			if (!isSpace) {
 				if (Character.isLetter(name.charAt(i))) {
 					letterAmount++;
-				} else if (" ".equals(String.valueOf(name.charAt(i)))) {
+				} else if (name.charAt(i) == ' ') {
 					isSpace = true;
 				} else {
-					throw new IllegalArgumentException("Invalid course name.");
-				}
-			} else if (isSpace) {
-				if (Character.isDigit(name.charAt(i))) {
-					digitAmount++;
-				} else {
-					throw new IllegalArgumentException("Invalid course name.");
+					return false;
 				}
+			} else if (Character.isDigit(name.charAt(i))) {
+				digitAmount++;
+			} else {
+				return false;
 			}
 		}
 
 		if (letterAmount < MIN_LETTER_COUNT || letterAmount > MAX_LETTER_COUNT) {
-			throw new IllegalArgumentException("Invalid course name.");
-		}
-
-		if (digitAmount != DIGIT_COUNT) {
-			throw new IllegalArgumentException("Invalid course name.");
+			return false;
 		}
 
-		this.name = name;
+		return digitAmount == DIGIT_COUNT;
 	}
 
 	/**
@@ -167,16 +253,31 @@ public class Course extends Activity {
 	 */
 	public void setSection(String section) {
 
-		if (section == null || section.length() != SECTION_LENGTH) {
+		if (!isValidSection(section)) {
 			throw new IllegalArgumentException("Invalid section.");
 		}
+		this.section = section;
+	}
+
+	/**
+	 * Checks a section without throwing. setSection() throws exactly when this
+	 * returns false.
+	 * 
+	 * @param section the section to check
+	 * @return true if the section is exactly three digits
+	 */
+	public static boolean isValidSection(String section) {
+
+		if (section == null || section.length() != SECTION_LENGTH) {
+			return false;
+		}
 
 		for (int i = 0; i < section.length(); i++) {
 			if (!Character.isDigit(section.charAt(i))) {
-				throw new IllegalArgumentException("Invalid section.");
+				return false;
 			}
 		}
-		this.section = section;
+		return true;
 	}
 
 	/**
@@ -197,13 +298,24 @@ public class Course extends Activity {
 	 */
 	public void setCredits(int credits) {
 
-		if (credits > MAX_CREDITS || credits < MIN_CREDITS) {
+		if (!isValidCredits(credits)) {
 			throw new IllegalArgumentException("Invalid credits.");
 		}
 
 		this.credits = credits;
 	}
 
+	/**
+	 * Checks credits without throwing. setCredits() throws exactly when this
+	 * returns false.
+	 * 
+	 * @param credits the credits to check
+	 * @return true if the credits are between the minimum and maximum
+	 */
+	public static boolean isValidCredits(int credits) {
+		return credits >= MIN_CREDITS && credits <= MAX_CREDITS;
+	}
+
 	/**
 	 * Return's the Course's instructor ID.
 	 * 
@@ -221,13 +333,24 @@ public class Course extends Activity {
 	 */
 	public void setInstructorId(String instructorId) {
 
-		if (instructorId == null || "".equals(instructorId)) {
+		if (!isValidInstructorId(instructorId)) {
 			throw new IllegalArgumentException("Invalid instructor id.");
 		}
 
 		this.instructorId = instructorId;
 	}
 
+	/**
+	 * Checks an instructor ID without throwing. setInstructorId() throws exactly
+	 * when this returns false.
+	 * 
+	 * @param instructorId the instructor ID to check
+	 * @return true if the instructor ID is not null or empty
+	 */
+	public static boolean isValidInstructorId(String instructorId) {
+		return instructorId != null && !"".equals(instructorId);
+	}
+
 
 	/**
 	 * Returns a comma separated value String of all Course fields.
@@ -236,11 +359,24 @@ public class Course extends Activity {
 	 */
 	@Override
 	public String toString() {
-		if ("A".equals(getMeetingDays())) {
-			return name + "," + getTitle() + "," + section + "," + credits + "," + instructorId + "," + getMeetingDays();
+		StringBuilder record = new StringBuilder();
+		appendRecord(record);
+		return record.toString();
+	}
+
+	/**
+	 * Appends the comma separated value record of all Course fields to the given
+	 * builder.
+	 * 
+	 * @param record builder to append the record to
+	 */
+	@Override
+	public void appendRecord(StringBuilder record) {
+		record.append(name).append(',').append(getTitle()).append(',').append(section).append(',').append(credits)
+				.append(',').append(instructorId).append(',').append(getMeetingDays());
+		if (!"A".equals(getMeetingDays())) {
+			record.append(',').append(getStartTime()).append(',').append(getEndTime());
 		}
-		return name + "," + getTitle() + "," + section + "," + credits + "," + instructorId + "," + getMeetingDays() + ","
-				+ getStartTime() + "," + getEndTime();
 	}
 
 	/**
@@ -340,64 +476,87 @@ public class Course extends Activity {
 	@Override
 	public void setMeetingDaysAndTime(String meetingDays, int startTime, int endTime) {
 		
-		if(meetingDays == null || meetingDays.length() == 0) {
+		if (!isValidMeetingDays(meetingDays)) {
 			throw new IllegalArgumentException("Invalid meeting days and times.");
 		}
 		
+		//all our info is checked according to course specifics, now we send it to activity.java
+		super.setMeetingDaysAndTime(meetingDays, startTime, endTime);
+	}
+
+	/**
+	 * Checks the meeting days and times of a Course without throwing.
+	 * setMeetingDaysAndTime() throws exactly when this returns false.
+	 * 
+	 * @param meetingDays meeting days of course
+	 * @param startTime starting time of course
+	 * @param endTime end time of course
+	 * @return true if the meeting days and times are valid for a Course
+	 */
+	public static boolean isValidMeetingDaysAndTime(String meetingDays, int startTime, int endTime) {
+		return isValidMeetingDays(meetingDays) && hasValidMeetingDaysAndTime(meetingDays, startTime, endTime);
+	}
+
+	/**
+	 * Checks the meeting days of a Course on their own, without looking at the
+	 * times. Courses are either arranged or meet on weekdays, each at most once.
+	 * 
+	 * @param meetingDays meeting days of course
+	 * @return true if the meeting days are valid for a Course
+	 */
+	public static boolean isValidMeetingDays(String meetingDays) {
+		
+		if(meetingDays == null || meetingDays.length() == 0) {
+			return false;
+		}
+		
 		//if meeting day is arranged there is no start and end time
 		//therefore we can just pass 0 for start and end time to Activity.setMeetingDaysAndTime
 		if("A".equals(meetingDays)) {
-			super.setMeetingDaysAndTime(meetingDays, startTime, endTime);
+			return true;
 		}
 		
-
-		else {
-			//now we need to initialize local variables to count what days are present in our meetingDays 
-			//string by iterating through the meetingDays String. Then we are going to check and ensure 
-			//that the days listed meet our specifications
-			int mCount = 0;
-			int tCount = 0;
-			int wCount = 0;
-			int hCount = 0;
-			int fCount = 0;
-			
-			//For Course, there is nothing on the weekend, according to user case we only need to worry about
-			//weekdays, Event will make use of weekends however
+		//now we need to initialize local variables to count what days are present in our meetingDays 
+		//string by iterating through the meetingDays String. Then we are going to check and ensure 
+		//that the days listed meet our specifications
+		int mCount = 0;
+		int tCount = 0;
+		int wCount = 0;
+		int hCount = 0;
+		int fCount = 0;
+		
+		//For Course, there is nothing on the weekend, according to user case we only need to worry about
+		//weekdays, Event will make use of weekends however
+		
+		//now we iterate through the meetingDays string to get a specific day
+		for (int i = 0; i < meetingDays.length(); i++) {
+			//if char at meetingDays[i] == weekday 
+			//increase dayCount for that char
+			if(meetingDays.charAt(i) == 'M') {
+				mCount++;
+			}
 			
-			//now we iterate through the meetingDays string to get a specific day
-			for (int i = 0; i < meetingDays.length(); i++) {
-				//if char at meetingDays[i] == weekday 
-				//increase dayCount for that char
-				if(meetingDays.charAt(i) == 'M') {
-					mCount++;
-				}
-				
-				else if (meetingDays.charAt(i) == 'T') {
-					tCount++;
-				}
-				else if (meetingDays.charAt(i) == 'W') {
-					wCount++;
-				}
-				else if (meetingDays.charAt(i) == 'H') {
-					hCount++;
-				}
-				else if (meetingDays.charAt(i) == 'F') {
-					fCount++;
-				}
-				//if nothing else throw IAE
-				else {
-					throw new IllegalArgumentException("Invalid meeting days and times.");
-				}
+			else if (meetingDays.charAt(i) == 'T') {
+				tCount++;
 			}
-				
-			if (mCount > 1 || tCount > 1 || wCount > 1 || hCount > 1 || fCount > 1) {
-				throw new IllegalArgumentException("Invalid meeting days and times.");
+			else if (meetingDays.charAt(i) == 'W') {
+				wCount++;
+			}
+			else if (meetingDays.charAt(i) == 'H') {
+				hCount++;
+			}
+			else if (meetingDays.charAt(i) == 'F') {
+				fCount++;
+			}
+			//if nothing else the meeting days are invalid
+			else {
+				return false;
 			}
-			
-			//all our info is checked according to course specifics, now we send it to activity.java
-			super.setMeetingDaysAndTime(meetingDays, startTime, endTime);
 		}
+			
+		return mCount <= 1 && tCount <= 1 && wCount <= 1 && hCount <= 1 && fCount <= 1;
 	}
+
 	
 	/**
 	 * Checks for duplicate activities similar to the isEquals() method
@@ -173,11 +173,22 @@ public class Event extends Activity {
 	@Override
 	public String toString() {
 		
-		String eventInfo;
+		StringBuilder eventInfo = new StringBuilder();
 		
-		eventInfo = getTitle() + "," + getMeetingDays() + "," + getStartTime() + "," + getEndTime() + "," + getEventDetails();
+		appendRecord(eventInfo);
 		
-		return eventInfo;
+		return eventInfo.toString();
+	}
+
+	/**
+	 * Appends the comma separated value record of the event to the given builder.
+	 * 
+	 * @param record builder to append the record to
+	 */
+	@Override
+	public void appendRecord(StringBuilder record) {
+		record.append(getTitle()).append(',').append(getMeetingDays()).append(',').append(getStartTime()).append(',')
+				.append(getEndTime()).append(',').append(getEventDetails());
 	}
 	
 	/**
@@ -0,0 +1,56 @@
+/**
+ * 
+ */
+package edu.ncsu.csc216.wolf_scheduler.io;
+
+/**
+ * Counts of what ActivityRecordIO wrote to a file.
+ * 
+ * @author Jay Shah (jsshah)
+ */
+public class ActivityExportReport {
+
+	/** number of activity records written */
+	private final int recordCount;
+	/** number of bytes in the written file */
+	private final long byteCount;
+
+	/**
+	 * Creates a report.
+	 * 
+	 * @param recordCount number of activity records written
+	 * @param byteCount   number of bytes in the written file
+	 */
+	ActivityExportReport(int recordCount, long byteCount) {
+		this.recordCount = recordCount;
+		this.byteCount = byteCount;
+	}
+
+	/**
+	 * Returns the number of activity records written.
+	 * 
+	 * @return the record count
+	 */
+	public int getRecordCount() {
+		return recordCount;
+	}
+
+	/**
+	 * Returns the number of bytes in the written file.
+	 * 
+	 * @return the byte count
+	 */
+	public long getByteCount() {
+		return byteCount;
+	}
+
+	/**
+	 * Returns a one line summary of the export.
+	 * 
+	 * @return records and bytes written
+	 */
+	@Override
+	public String toString() {
+		return "records: " + recordCount + ", bytes: " + byteCount;
+	}
+}
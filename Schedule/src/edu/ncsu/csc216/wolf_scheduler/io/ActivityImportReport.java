@@ -0,0 +1,62 @@
+/**
+ * 
+ */
+package edu.ncsu.csc216.wolf_scheduler.io;
+
+/**
+ * Counts of what ActivityRecordIO read from a file: how many lines became
+ * activities and how many were skipped because they were neither a valid
+ * Course nor a valid Event.
+ * 
+ * @author Jay Shah (jsshah)
+ */
+public class ActivityImportReport {
+
+	/** number of lines that became activities */
+	private int recordCount;
+	/** number of lines that were skipped */
+	private int skippedCount;
+
+	/**
+	 * Counts a line that became an activity.
+	 */
+	void read() {
+		recordCount++;
+	}
+
+	/**
+	 * Counts a line that was skipped.
+	 */
+	void skipped() {
+		skippedCount++;
+	}
+
+	/**
+	 * Returns the number of lines that became activities.
+	 * 
+	 * @return the record count
+	 */
+	public int getRecordCount() {
+		return recordCount;
+	}
+
+	/**
+	 * Returns the number of lines that were neither a valid Course nor a valid
+	 * Event and were left out of the schedule.
+	 * 
+	 * @return the skipped count
+	 */
+	public int getSkippedCount() {
+		return skippedCount;
+	}
+
+	/**
+	 * Returns a one line summary of the import.
+	 * 
+	 * @return records read and lines skipped
+	 */
+	@Override
+	public String toString() {
+		return "records: " + recordCount + ", skipped: " + skippedCount;
+	}
+}
@@ -1,11 +1,24 @@
 package edu.ncsu.csc216.wolf_scheduler.io;
 
+import java.io.BufferedReader;
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
-import java.io.PrintStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
 
 import edu.ncsu.csc216.wolf_scheduler.course.Activity;
+import edu.ncsu.csc216.wolf_scheduler.course.Course;
+import edu.ncsu.csc216.wolf_scheduler.course.Event;
 
 /**
  * Handles writing activities to output files and reading input files for course
@@ -16,28 +29,198 @@ import edu.ncsu.csc216.wolf_scheduler.course.Activity;
  */
 public class ActivityRecordIO {
 
+	/** Number of characters collected before they are written to the file */
+	private static final int BUFFER_SIZE = 64 * 1024;
+	/** Number of commas in an Event record */
+	private static final int EVENT_COMMAS = 4;
+	/** Number of commas in an arranged Course record */
+	private static final int ARRANGED_COURSE_COMMAS = 5;
+	/** Number of commas in a Course record with meeting times */
+	private static final int TIMED_COURSE_COMMAS = 7;
+
+	/**
+	 * Reads a schedule written by writeActivityRecords() back into Activities. A
+	 * Course record is resolved to the Course with the same name and section in
+	 * the given catalog, so the Course in the catalog is shared rather than built
+	 * and checked again. A Course that is no longer in the catalog is built from
+	 * its record instead. Every other record is read as an Event. Records that are
+	 * neither a valid Course nor a valid Event are skipped; the overload taking an
+	 * ActivityImportReport counts them.
+	 * 
+	 * @param fileName file to read the schedule from
+	 * @param catalog  catalog the Courses of the schedule are resolved against
+	 * @return the Activities in the schedule in the order they were written
+	 * @throws IOException if the file cannot be found or read
+	 */
+	public static ArrayList<Activity> readActivityRecords(String fileName, ArrayList<Course> catalog)
+			throws IOException {
+
+		// index the catalog by name and section
+		HashMap<String, Course> catalogIndex = new HashMap<String, Course>(catalog.size() * 2);
+		for (int i = 0; i < catalog.size(); i++) {
+			Course c = catalog.get(i);
+			catalogIndex.putIfAbsent(c.getName() + "," + c.getSection(), c);
+		}
+		return readActivityRecords(fileName, catalogIndex);
+	}
+
+	/**
+	 * Reads a schedule written by writeActivityRecords() back into Activities,
+	 * resolving Course records against a catalog index that was already built. The
+	 * index maps the name and section of every catalog Course, joined by a comma,
+	 * to the Course.
+	 * 
+	 * @param fileName     file to read the schedule from
+	 * @param catalogIndex catalog Courses keyed by "name,section"
+	 * @return the Activities in the schedule in the order they were written
+	 * @throws IOException if the file cannot be found or read
+	 */
+	public static ArrayList<Activity> readActivityRecords(String fileName, Map<String, Course> catalogIndex)
+			throws IOException {
+		return readActivityRecords(fileName, catalogIndex, new ActivityImportReport());
+	}
+
+	/**
+	 * Reads a schedule written by writeActivityRecords() back into Activities,
+	 * resolving Course records against a catalog index that was already built, and
+	 * counts the lines read and skipped in the given report.
+	 * 
+	 * @param fileName     file to read the schedule from
+	 * @param catalogIndex catalog Courses keyed by "name,section"
+	 * @param report       report to count read and skipped lines in
+	 * @return the Activities in the schedule in the order they were written
+	 * @throws IOException if the file cannot be found or read
+	 */
+	public static ArrayList<Activity> readActivityRecords(String fileName, Map<String, Course> catalogIndex,
+			ActivityImportReport report) throws IOException {
+
+		ArrayList<Activity> activities = new ArrayList<Activity>();
+		CourseLineParser parser = new CourseLineParser();
+		int[] commas = new int[TIMED_COURSE_COMMAS + 1];
+		char[] chars = new char[0];
+		// same charset writeActivityRecords() used
+		try (BufferedReader activityReader = new BufferedReader(new InputStreamReader(new FileInputStream(fileName)),
+				BUFFER_SIZE)) {
+			String line = activityReader.readLine();
+			while (line != null) {
+
+				// find every comma, Event titles and details may hold commas of their own
+				int commaCount = 0;
+				int comma = line.indexOf(',');
+				while (comma >= 0) {
+					if (commaCount == commas.length) {
+						commas = Arrays.copyOf(commas, commas.length * 2);
+					}
+					commas[commaCount++] = comma;
+					comma = line.indexOf(',', comma + 1);
+				}
+				boolean courseShaped = commaCount == ARRANGED_COURSE_COMMAS || commaCount == TIMED_COURSE_COMMAS;
+
+				Activity activity = null;
+				if (courseShaped) {
+					// a Course that is still in the catalog is taken from the catalog as is
+					activity = catalogIndex.get(line.substring(0, commas[0]) + ","
+							+ line.substring(commas[1] + 1, commas[2]));
+					if (activity == null) {
+						if (chars.length < line.length()) {
+							chars = new char[line.length()];
+						}
+						line.getChars(0, line.length(), chars, 0);
+						activity = parser.parse(chars, 0, line.length());
+					}
+				}
+				if (activity == null) {
+					activity = parseEvent(line, commas, commaCount);
+				}
+				if (activity != null) {
+					activities.add(activity);
+					report.read();
+				} else {
+					report.skipped();
+				}
+				line = activityReader.readLine();
+			}
+		}
+		return activities;
+	}
+
+	/**
+	 * Builds the Event written on the given line. The title and the details of an
+	 * Event may both hold commas, so the meeting days, start time and end time are
+	 * taken from the first run of three fields after a comma that make a valid
+	 * Event. Everything in front of them is the title and everything after them
+	 * is the details.
+	 * 
+	 * @param line       Event record
+	 * @param commas     positions of the commas on the line
+	 * @param commaCount number of commas on the line
+	 * @return the Event or null if the record is not a valid Event
+	 */
+	private static Event parseEvent(String line, int[] commas, int commaCount) {
+		for (int i = 0; i + EVENT_COMMAS <= commaCount; i++) {
+			try {
+				return new Event(line.substring(0, commas[i]), line.substring(commas[i] + 1, commas[i + 1]),
+						Integer.parseInt(line.substring(commas[i + 1] + 1, commas[i + 2])),
+						Integer.parseInt(line.substring(commas[i + 2] + 1, commas[i + 3])),
+						line.substring(commas[i + 3] + 1));
+			} catch (IllegalArgumentException e) {
+				// the title may end at a later comma, NumberFormatException included
+			}
+		}
+		return null;
+	}
+
 	/**
 	 * This method will write the course object that has been populated with data
-	 * to the output file requested
+	 * to the output file requested. The records are written to a temporary file
+	 * next to the output file, which then replaces the output file in one step, so
+	 * the output file is never left half written.
 	 * 
 	 * @param fileName file to write schedule of Courses to
 	 * @param activities activities to be added to schedule
+	 * @return number of records and bytes written
 	 * @throws IOException if cannot write to file
 	 */
-	public static void writeActivityRecords(String fileName, ArrayList<Activity> activities) throws IOException {
-		
-		//initialize print stream object which allows us to write to an output file
-		PrintStream courseWriter = new PrintStream(new File(fileName));
-		
-		//iterate through list and print one course per one line
-		for (int i = 0; i < activities.size(); i++) {
-			courseWriter.println(activities.get(i).toString());
+	public static ActivityExportReport writeActivityRecords(String fileName, ArrayList<Activity> activities)
+			throws IOException {
+
+		File target = new File(fileName).getAbsoluteFile();
+		// a fixed prefix, createTempFile() rejects prefixes shorter than three characters
+		File temp = File.createTempFile(".export-", ".tmp", target.getParentFile());
+		try {
+			// same charset and line separator PrintStream used
+			FileOutputStream out = new FileOutputStream(temp);
+			try (Writer courseWriter = new OutputStreamWriter(out)) {
+				String lineSeparator = System.lineSeparator();
+				StringBuilder buf = new StringBuilder(BUFFER_SIZE + BUFFER_SIZE / 4);
+
+				// iterate through list and append one activity per line, writing full buffers
+				for (int i = 0; i < activities.size(); i++) {
+					activities.get(i).appendRecord(buf);
+					buf.append(lineSeparator);
+					if (buf.length() >= BUFFER_SIZE) {
+						courseWriter.append(buf);
+						buf.setLength(0);
+					}
+				}
+				courseWriter.append(buf);
+				courseWriter.flush();
+
+				// make sure the records are on disk before they replace the old file
+				out.getFD().sync();
+			}
+			long byteCount = temp.length();
+			try {
+				Files.move(temp.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING,
+						StandardCopyOption.ATOMIC_MOVE);
+			} catch (AtomicMoveNotSupportedException e) {
+				Files.move(temp.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+			}
+			return new ActivityExportReport(activities.size(), byteCount);
+		} finally {
+			// only still there if something went wrong
+			Files.deleteIfExists(temp.toPath());
 		}
-	
-		//make sure you close courseWriter (could be any name depending on what 
-		//you initialized print stream object to)
-		courseWriter.close();
-	
 	}
 
 }
@@ -0,0 +1,141 @@
+/**
+ * 
+ */
+package edu.ncsu.csc216.wolf_scheduler.io;
+
+/**
+ * Counts what happened to each line while a course record file was loaded: how
+ * many lines became Courses and how many were rejected for each RejectReason.
+ * Rejected lines are counted without any exception being thrown, so the report
+ * costs next to nothing even for files that are mostly invalid lines.
+ * 
+ * @author Jay Shah (jsshah)
+ */
+public class CatalogLoadReport {
+
+	/** number of lines that became Courses in the catalog */
+	private int acceptedCount;
+	/** number of rejected lines for each reason, indexed by ordinal */
+	private final int[] rejectedCounts = new int[RejectReason.values().length];
+	/** heap bytes saved by sharing repeated field values between Courses */
+	private long bytesSaved;
+
+	/**
+	 * Returns the number of lines read, accepted or not.
+	 * 
+	 * @return the number of lines
+	 */
+	public int getLineCount() {
+		return acceptedCount + getRejectedCount();
+	}
+
+	/**
+	 * Returns the number of lines that became Courses in the catalog.
+	 * 
+	 * @return the number of accepted lines
+	 */
+	public int getAcceptedCount() {
+		return acceptedCount;
+	}
+
+	/**
+	 * Returns the number of lines rejected for any reason.
+	 * 
+	 * @return the number of rejected lines
+	 */
+	public int getRejectedCount() {
+		int total = 0;
+		for (int i = 0; i < rejectedCounts.length; i++) {
+			total += rejectedCounts[i];
+		}
+		return total;
+	}
+
+	/**
+	 * Returns the number of lines rejected for the given reason.
+	 * 
+	 * @param reason the reason to count
+	 * @return the number of lines rejected for reason
+	 */
+	public int getRejectedCount(RejectReason reason) {
+		return rejectedCounts[reason.ordinal()];
+	}
+
+	/**
+	 * Returns an estimate of the heap bytes saved by sharing one String between
+	 * every Course with the same name, title, section, instructor id, or meeting
+	 * days instead of giving each Course copies of its own.
+	 * 
+	 * @return estimated bytes saved
+	 */
+	public long getBytesSaved() {
+		return bytesSaved;
+	}
+
+	/**
+	 * Records a line that became a Course.
+	 */
+	void accepted() {
+		acceptedCount++;
+	}
+
+	/**
+	 * Records a line that was rejected.
+	 * 
+	 * @param reason why the line was rejected
+	 */
+	void rejected(RejectReason reason) {
+		rejectedCounts[reason.ordinal()]++;
+	}
+
+	/**
+	 * Records heap bytes saved by sharing field values.
+	 * 
+	 * @param bytes bytes saved
+	 */
+	void saved(long bytes) {
+		bytesSaved += bytes;
+	}
+
+	/**
+	 * Moves an accepted line over to the rejected counts, used when a parsed
+	 * Course turns out to be a duplicate.
+	 * 
+	 * @param reason why the line was rejected after all
+	 */
+	void acceptedThenRejected(RejectReason reason) {
+		acceptedCount--;
+		rejected(reason);
+	}
+
+	/**
+	 * Adds the counts of another report to this one.
+	 * 
+	 * @param other report to add
+	 */
+	void add(CatalogLoadReport other) {
+		acceptedCount += other.acceptedCount;
+		bytesSaved += other.bytesSaved;
+		for (int i = 0; i < rejectedCounts.length; i++) {
+			rejectedCounts[i] += other.rejectedCounts[i];
+		}
+	}
+
+	/**
+	 * Returns the counts as a short summary, one reason per line.
+	 * 
+	 * @return summary of the report
+	 */
+	@Override
+	public String toString() {
+		StringBuilder summary = new StringBuilder();
+		summary.append("lines: ").append(getLineCount()).append(", accepted: ").append(acceptedCount)
+				.append(", bytes saved: ").append(bytesSaved);
+		for (RejectReason reason : RejectReason.values()) {
+			if (getRejectedCount(reason) > 0) {
+				summary.append("\n").append(reason.getDescription()).append(": ").append(getRejectedCount(reason));
+			}
+		}
+		return summary.toString();
+	}
+}
@@ -0,0 +1,272 @@
+/**
+ *
+ */
+package edu.ncsu.csc216.wolf_scheduler.io;
+
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.zip.CRC32;
+
+import edu.ncsu.csc216.wolf_scheduler.course.Course;
+
+/**
+ * Writes and reads catalog snapshots, a compact binary copy of a course catalog
+ * that has already been loaded and validated. Loading a snapshot skips the text
+ * parsing and the Course checks entirely, so a vetted catalog can be brought back
+ * in a fraction of the time it takes to read the original catalog file.
+ *
+ * A snapshot is laid out as a header, a string table, and one fixed width record
+ * per Course, followed by a CRC32 checksum of the string table and records:
+ *
+ * <pre>
+ * header:  int magic, int version, int course count, int string count
+ * strings: int byte length, UTF-8 bytes (repeated string count times)
+ * records: int name, int title, int section, int instructor id, int meeting days,
+ *          byte credits, short start time, short end time (repeated course count times)
+ * trailer: long checksum
+ * </pre>
+ *
+ * Record fields that hold strings are indexes into the string table, so a value
+ * repeated across the catalog like an instructor id is only stored once.
+ *
+ * @author Jay Shah (jsshah)
+ */
+public class CatalogSnapshotIO {
+
+	/**
+	 * First four bytes of every snapshot, 0x89 followed by "WSC". The first byte
+	 * is not ASCII so a text catalog is never mistaken for a snapshot.
+	 */
+	private static final int MAGIC = 0x89575343;
+	/** Version of the snapshot layout written by this class */
+	private static final int VERSION = 1;
+	/** Number of bytes in the header */
+	private static final int HEADER_SIZE = 16;
+	/** Number of bytes in a single Course record */
+	private static final int RECORD_SIZE = 25;
+	/** Number of bytes in the trailer */
+	private static final int TRAILER_SIZE = 8;
+	/** Number of string fields in a single Course record */
+	private static final int STRING_FIELDS = 5;
+	/** Size of the buffer used while writing */
+	private static final int BUFFER_SIZE = 64 * 1024;
+	/** Factory for Courses whose values were checked before the snapshot was written */
+	private static final Course.TrustedFactory COURSES = Course.trustedFactory();
+
+	/**
+	 * Writes the given catalog to a snapshot file.
+	 *
+	 * @param fileName file to write the snapshot to
+	 * @param courses  catalog to write
+	 * @throws IOException if cannot write to file
+	 */
+	public static void writeCatalogSnapshot(String fileName, ArrayList<Course> courses) throws IOException {
+
+		// Give every distinct string an index into the string table
+		HashMap<String, Integer> indexes = new HashMap<String, Integer>();
+		ArrayList<String> strings = new ArrayList<String>();
+		int[] records = new int[courses.size() * STRING_FIELDS];
+		for (int i = 0; i < courses.size(); i++) {
+			Course c = courses.get(i);
+			records[i * STRING_FIELDS] = stringIndex(c.getName(), indexes, strings);
+			records[i * STRING_FIELDS + 1] = stringIndex(c.getTitle(), indexes, strings);
+			records[i * STRING_FIELDS + 2] = stringIndex(c.getSection(), indexes, strings);
+			records[i * STRING_FIELDS + 3] = stringIndex(c.getInstructorId(), indexes, strings);
+			records[i * STRING_FIELDS + 4] = stringIndex(c.getMeetingDays(), indexes, strings);
+		}
+
+		DataOutputStream out = new DataOutputStream(
+				new BufferedOutputStream(new FileOutputStream(fileName), BUFFER_SIZE));
+		try {
+			out.writeInt(MAGIC);
+			out.writeInt(VERSION);
+			out.writeInt(courses.size());
+			out.writeInt(strings.size());
+
+			// Everything after the header goes through the checksum
+			CRC32 checksum = new CRC32();
+			ByteBuffer body = ByteBuffer.allocate(BUFFER_SIZE);
+			for (int i = 0; i < strings.size(); i++) {
+				byte[] bytes = strings.get(i).getBytes(StandardCharsets.UTF_8);
+				if (body.remaining() < Integer.BYTES + bytes.length) {
+					flush(body, out, checksum);
+				}
+				body.putInt(bytes.length);
+				if (bytes.length <= body.remaining()) {
+					body.put(bytes);
+				} else {
+					// Too long for the buffer, write it on its own
+					flush(body, out, checksum);
+					checksum.update(bytes);
+					out.write(bytes);
+				}
+			}
+			for (int i = 0; i < courses.size(); i++) {
+				if (body.remaining() < RECORD_SIZE) {
+					flush(body, out, checksum);
+				}
+				Course c = courses.get(i);
+				for (int field = 0; field < STRING_FIELDS; field++) {
+					body.putInt(records[i * STRING_FIELDS + field]);
+				}
+				body.put((byte) c.getCredits());
+				body.putShort((short) c.getStartTime());
+				body.putShort((short) c.getEndTime());
+			}
+			flush(body, out, checksum);
+			out.writeLong(checksum.getValue());
+		} finally {
+			out.close();
+		}
+	}
+
+	/**
+	 * Reads a catalog back from a snapshot file written by writeCatalogSnapshot().
+	 * The Courses are rebuilt without being validated again; a snapshot that fails
+	 * its checksum is rejected before any Course is built.
+	 *
+	 * @param fileName snapshot file to read
+	 * @return the catalog stored in the snapshot, in the order it was written
+	 * @throws IOException if the file cannot be read or is not a valid snapshot
+	 */
+	public static ArrayList<Course> readCatalogSnapshot(String fileName) throws IOException {
+
+		FileInputStream fileStream = new FileInputStream(fileName);
+		try {
+			FileChannel channel = fileStream.getChannel();
+			long size = channel.size();
+			if (size < HEADER_SIZE + TRAILER_SIZE || size > Integer.MAX_VALUE) {
+				throw new IOException("Invalid catalog snapshot.");
+			}
+			ByteBuffer buf = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+
+			if (buf.getInt() != MAGIC) {
+				throw new IOException("Invalid catalog snapshot.");
+			}
+			if (buf.getInt() != VERSION) {
+				throw new IOException("Unsupported catalog snapshot version.");
+			}
+			int courseCount = buf.getInt();
+			int stringCount = buf.getInt();
+			if (courseCount < 0 || stringCount < 0) {
+				throw new IOException("Invalid catalog snapshot.");
+			}
+
+			// Make sure the body was not damaged before trusting anything in it
+			int bodyEnd = (int) size - TRAILER_SIZE;
+			ByteBuffer body = buf.duplicate();
+			body.position(HEADER_SIZE);
+			body.limit(bodyEnd);
+			CRC32 checksum = new CRC32();
+			checksum.update(body);
+			if (checksum.getValue() != buf.getLong(bodyEnd)) {
+				throw new IOException("Corrupt catalog snapshot.");
+			}
+
+			String[] strings = new String[stringCount];
+			byte[] bytes = new byte[0];
+			for (int i = 0; i < stringCount; i++) {
+				int length = buf.getInt();
+				if (length < 0 || length > bodyEnd - buf.position()) {
+					throw new IOException("Corrupt catalog snapshot.");
+				}
+				if (bytes.length < length) {
+					bytes = new byte[length];
+				}
+				buf.get(bytes, 0, length);
+				strings[i] = new String(bytes, 0, length, StandardCharsets.UTF_8);
+			}
+
+			if ((long) courseCount * RECORD_SIZE != bodyEnd - buf.position()) {
+				throw new IOException("Corrupt catalog snapshot.");
+			}
+			ArrayList<Course> courses = new ArrayList<Course>(courseCount);
+			for (int i = 0; i < courseCount; i++) {
+				String name = string(strings, buf.getInt());
+				String title = string(strings, buf.getInt());
+				String section = string(strings, buf.getInt());
+				String instructorId = string(strings, buf.getInt());
+				String meetingDays = string(strings, buf.getInt());
+				int credits = buf.get();
+				int startTime = buf.getShort();
+				int endTime = buf.getShort();
+				courses.add(COURSES.create(name, title, section, credits, instructorId, meetingDays, startTime,
+						endTime));
+			}
+			return courses;
+		} finally {
+			fileStream.close();
+		}
+	}
+
+	/**
+	 * Checks if the given file starts like a catalog snapshot.
+	 *
+	 * @param fileName file to check
+	 * @return true if the file starts with the snapshot magic number
+	 */
+	public static boolean isCatalogSnapshot(String fileName) {
+		try (DataInputStream in = new DataInputStream(new FileInputStream(fileName))) {
+			return in.readInt() == MAGIC;
+		} catch (IOException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * Returns the string table index for the given value, adding it to the table
+	 * if it has not been seen yet.
+	 *
+	 * @param value   string to look up
+	 * @param indexes index of every string already in the table
+	 * @param strings the string table
+	 * @return index of value in the string table
+	 */
+	private static int stringIndex(String value, HashMap<String, Integer> indexes, ArrayList<String> strings) {
+		Integer index = indexes.get(value);
+		if (index == null) {
+			index = strings.size();
+			indexes.put(value, index);
+			strings.add(value);
+		}
+		return index;
+	}
+
+	/**
+	 * Returns the string at the given index of the string table.
+	 *
+	 * @param strings the string table
+	 * @param index   index read from a record
+	 * @return the string at index
+	 * @throws IOException if the index is outside of the table
+	 */
+	private static String string(String[] strings, int index) throws IOException {
+		if (index < 0 || index >= strings.length) {
+			throw new IOException("Corrupt catalog snapshot.");
+		}
+		return strings[index];
+	}
+
+	/**
+	 * Writes the buffered bytes to the stream and adds them to the checksum.
+	 *
+	 * @param body     buffer holding the bytes to write
+	 * @param out      stream to write to
+	 * @param checksum running checksum of the body
+	 * @throws IOException if cannot write to file
+	 */
+	private static void flush(ByteBuffer body, DataOutputStream out, CRC32 checksum) throws IOException {
+		checksum.update(body.array(), 0, body.position());
+		out.write(body.array(), 0, body.position());
+		body.clear();
+	}
+}
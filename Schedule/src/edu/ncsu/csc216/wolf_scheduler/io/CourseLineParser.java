@@ -0,0 +1,437 @@
+/**
+ *
+ */
+package edu.ncsu.csc216.wolf_scheduler.io;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.CharsetDecoder;
+import java.util.ArrayList;
+
+import edu.ncsu.csc216.wolf_scheduler.course.Activity;
+import edu.ncsu.csc216.wolf_scheduler.course.Course;
+
+/**
+ * CourseLineParser splits course record lines into their comma separated fields
+ * without building a Scanner for every line. Lines are read straight out of a
+ * shared character buffer, or a byte buffer such as a mapped file, and the
+ * numeric fields are converted to ints in place.
+ *
+ * Tokens follow the same rules as a Scanner using a "," delimiter so the same
+ * lines are accepted and rejected as the old Scanner based reader did: a single
+ * comma in front of a token is skipped, an empty token between two commas still
+ * counts as a token, and a comma at the very end of the line does not start a
+ * new token. Lines end at the same separators Scanner.nextLine() uses.
+ *
+ * @author Jay Shah (jsshah)
+ */
+final class CourseLineParser {
+
+	/** Radix used for the numeric fields */
+	private static final int RADIX = 10;
+	/** Index of the name token */
+	private static final int NAME = 0;
+	/** Index of the title token */
+	private static final int TITLE = 1;
+	/** Index of the section token */
+	private static final int SECTION = 2;
+	/** Index of the credits token */
+	private static final int CREDITS = 3;
+	/** Index of the instructor id token */
+	private static final int INSTRUCTOR_ID = 4;
+	/** Index of the meeting days token */
+	private static final int MEETING_DAYS = 5;
+	/** Index of the start time token */
+	private static final int START_TIME = 6;
+	/** Index of the end time token */
+	private static final int END_TIME = 7;
+	/** Number of tokens in an arranged course record */
+	private static final int ARRANGED_TOKENS = 6;
+	/** Number of tokens in a course record with meeting times */
+	private static final int TIMED_TOKENS = 8;
+	/** Starting size of the buffer lines of bytes are decoded into */
+	private static final int INITIAL_LINE_LENGTH = 256;
+	/** Factory for Courses whose lines already passed check() */
+	private static final Course.TrustedFactory COURSES = Course.trustedFactory();
+
+	/** characters of the line currently being parsed */
+	private char[] line;
+	/** index of the next unread character in the line */
+	private int position;
+	/** index one past the last character of the line */
+	private int end;
+	/** index of the first character of each token read */
+	private final int[] tokenStarts = new int[TIMED_TOKENS + 1];
+	/** index one past the last character of each token read */
+	private final int[] tokenEnds = new int[TIMED_TOKENS + 1];
+	/** number of tokens read, stopping at one more than a record can have */
+	private int tokenCount;
+	/** value of the last int token read */
+	private int intValue;
+	/** name of the last line checked */
+	private String name;
+	/** title of the last line checked */
+	private String title;
+	/** section of the last line checked */
+	private String section;
+	/** credits of the last line checked */
+	private int credits;
+	/** instructor id of the last line checked */
+	private String instructorId;
+	/** meeting days of the last line checked */
+	private String meetingDays;
+	/** start time of the last line checked */
+	private int startTime;
+	/** end time of the last line checked */
+	private int endTime;
+	/** reason the last line was rejected, null if it was valid */
+	private RejectReason rejectReason;
+	/** counts of accepted and rejected lines */
+	private final CatalogLoadReport report;
+	/** pool the field values of every accepted line are shared through, null for none */
+	private final StringPool pool;
+	/** reusable buffer that lines of bytes are decoded into */
+	private char[] decoded = new char[INITIAL_LINE_LENGTH];
+
+	/**
+	 * Creates a parser with a report of its own.
+	 */
+	CourseLineParser() {
+		this(new CatalogLoadReport());
+	}
+
+	/**
+	 * Creates a parser that counts accepted and rejected lines in the given report
+	 * and shares the field values of the Courses it creates through a pool.
+	 *
+	 * @param report report to count lines in
+	 */
+	CourseLineParser(CatalogLoadReport report) {
+		this(report, new StringPool());
+	}
+
+	/**
+	 * Creates a parser that counts accepted and rejected lines in the given report.
+	 *
+	 * @param report report to count lines in
+	 * @param pool   pool to share the field values of accepted lines through, or
+	 *               null to keep nothing from one line to the next
+	 */
+	CourseLineParser(CatalogLoadReport report, StringPool pool) {
+		this.report = report;
+		this.pool = pool;
+	}
+
+	/**
+	 * Parses every complete line in buf[from, to) and adds the valid Courses to the
+	 * given list in the order they appear. A line is only complete once its line
+	 * separator has been seen, unless endOfInput is true in which case the remaining
+	 * characters are treated as the last line.
+	 *
+	 * @param buf        characters to parse
+	 * @param from       index of the first character to parse
+	 * @param to         index one past the last character to parse
+	 * @param endOfInput true if no more characters will follow buf[to - 1]
+	 * @param courses    list the valid Courses are added to
+	 * @return index of the first character that was not consumed
+	 */
+	int parseLines(char[] buf, int from, int to, boolean endOfInput, ArrayList<Course> courses) {
+		int lineStart = from;
+		for (int i = from; i < to; i++) {
+			char c = buf[i];
+			if (c == '\n' || c == '\r' || c == '\u2028' || c == '\u2029' || c == '\u0085') {
+				//a carriage return at the end of the buffer may still be followed by a line feed
+				if (c == '\r' && i + 1 == to && !endOfInput) {
+					break;
+				}
+				Course course = parse(buf, lineStart, i);
+				if (course != null) {
+					courses.add(course);
+				}
+				if (c == '\r' && i + 1 < to && buf[i + 1] == '\n') {
+					i++;
+				}
+				lineStart = i + 1;
+			}
+		}
+		if (endOfInput && lineStart < to) {
+			Course course = parse(buf, lineStart, to);
+			if (course != null) {
+				courses.add(course);
+			}
+			lineStart = to;
+		}
+		return lineStart;
+	}
+
+	/**
+	 * Parses every line in bytes[position, limit) and adds the valid Courses to the
+	 * given list in the order they appear. The bytes are read in place, such as
+	 * straight out of a mapped file, one line at a time. Lines made of ASCII bytes
+	 * are copied into a reusable char buffer and any other line is handed to the
+	 * decoder. The charset must never use a line feed byte inside another
+	 * character. The remaining bytes after the last line feed are treated as the
+	 * last line.
+	 *
+	 * @param bytes   bytes to parse, which are not moved
+	 * @param decoder decoder for the file's charset that replaces bad input
+	 * @param courses list the valid Courses are added to
+	 */
+	void parseLines(ByteBuffer bytes, CharsetDecoder decoder, ArrayList<Course> courses) {
+		int limit = bytes.limit();
+		int lineStart = bytes.position();
+		for (int i = lineStart; i < limit; i++) {
+			if (bytes.get(i) == '\n') {
+				parseLine(bytes, lineStart, i + 1, decoder, courses);
+				lineStart = i + 1;
+			}
+		}
+		if (lineStart < limit) {
+			parseLine(bytes, lineStart, limit, decoder, courses);
+		}
+	}
+
+	/**
+	 * Decodes bytes[from, to) and parses the line it holds, along with any other
+	 * line separators Scanner recognizes inside of it.
+	 *
+	 * @param bytes   bytes holding the line
+	 * @param from    index of the first byte of the line
+	 * @param to      index one past the last byte of the line
+	 * @param decoder decoder for the file's charset that replaces bad input
+	 * @param courses list the valid Courses are added to
+	 */
+	private void parseLine(ByteBuffer bytes, int from, int to, CharsetDecoder decoder, ArrayList<Course> courses) {
+		int length = to - from;
+		if (decoded.length < length) {
+			decoded = new char[Math.max(length, decoded.length * 2)];
+		}
+		for (int i = 0; i < length; i++) {
+			byte b = bytes.get(from + i);
+			if (b < 0) {
+				//not plain ASCII, let the decoder handle the whole line
+				ByteBuffer line = bytes.duplicate();
+				line.limit(to);
+				line.position(from);
+				try {
+					CharBuffer chars = decoder.decode(line);
+					parseLines(chars.array(), chars.arrayOffset(), chars.arrayOffset() + chars.limit(), true, courses);
+				} catch (CharacterCodingException e) {
+					//cannot happen, bad input is replaced rather than reported
+				}
+				return;
+			}
+			decoded[i] = (char) b;
+		}
+		parseLines(decoded, 0, length, true, courses);
+	}
+
+	/**
+	 * Parses a single course record held in line[start, end) and creates the
+	 * matching Course. Every field is checked with the same non-throwing checks the
+	 * Course setters use before the Course is created, so an invalid line is
+	 * rejected without any exception being thrown. The reason is counted in the
+	 * report and kept until the next line is parsed.
+	 *
+	 * @param line  characters holding the record
+	 * @param start index of the first character of the record
+	 * @param end   index one past the last character of the record
+	 * @return the Course described by the record or null if the record is invalid
+	 */
+	Course parse(char[] line, int start, int end) {
+		rejectReason = check(line, start, end);
+		if (rejectReason != null) {
+			report.rejected(rejectReason);
+			return null;
+		}
+		report.accepted();
+		//only values that end up in a Course are added to the pool
+		if (pool != null) {
+			name = pool.intern(name);
+			title = pool.intern(title);
+			section = pool.intern(section);
+			instructorId = pool.intern(instructorId);
+			meetingDays = pool.intern(meetingDays);
+		}
+		return COURSES.create(name, title, section, credits, instructorId, meetingDays, startTime, endTime);
+	}
+
+	/**
+	 * Returns the reason the last line parsed was rejected.
+	 *
+	 * @return the reason, or null if the last line became a Course
+	 */
+	RejectReason getRejectReason() {
+		return rejectReason;
+	}
+
+	/**
+	 * Returns the report counting every line this parser has parsed.
+	 *
+	 * @return the load report
+	 */
+	CatalogLoadReport getReport() {
+		return report;
+	}
+
+	/**
+	 * Splits the record into tokens and checks each field in the order it appears.
+	 * The field values of a valid record are left in the fields of the parser.
+	 *
+	 * @param line  characters holding the record
+	 * @param start index of the first character of the record
+	 * @param end   index one past the last character of the record
+	 * @return why the record is invalid, or null if it is a valid Course
+	 */
+	private RejectReason check(char[] line, int start, int end) {
+		this.line = line;
+		this.position = start;
+		this.end = end;
+
+		//find up to one more token than a course record can have
+		tokenCount = 0;
+		while (tokenCount < tokenStarts.length && nextToken()) {
+			tokenCount++;
+		}
+
+		//arranged courses have no times, every other course needs both of them
+		boolean arranged = tokenCount > MEETING_DAYS && tokenLength(MEETING_DAYS) == 1
+				&& line[tokenStarts[MEETING_DAYS]] == 'A';
+		int expected = arranged ? ARRANGED_TOKENS : TIMED_TOKENS;
+		if (tokenCount < expected) {
+			return RejectReason.MISSING_FIELD;
+		}
+		if (tokenCount > expected) {
+			return RejectReason.EXTRA_TOKENS;
+		}
+
+		name = tokenString(NAME);
+		if (!Course.isValidName(name)) {
+			return RejectReason.INVALID_NAME;
+		}
+		title = tokenString(TITLE);
+		if (!Activity.isValidTitle(title)) {
+			return RejectReason.INVALID_TITLE;
+		}
+		section = tokenString(SECTION);
+		if (!Course.isValidSection(section)) {
+			return RejectReason.INVALID_SECTION;
+		}
+		if (!parseInt(CREDITS) || !Course.isValidCredits(intValue)) {
+			return RejectReason.INVALID_CREDITS;
+		}
+		credits = intValue;
+		instructorId = tokenString(INSTRUCTOR_ID);
+		if (!Course.isValidInstructorId(instructorId)) {
+			return RejectReason.INVALID_INSTRUCTOR_ID;
+		}
+		meetingDays = tokenString(MEETING_DAYS);
+		if (!Course.isValidMeetingDays(meetingDays)) {
+			return RejectReason.INVALID_MEETING_DAYS;
+		}
+		startTime = 0;
+		endTime = 0;
+		if (!arranged) {
+			if (!parseInt(START_TIME)) {
+				return RejectReason.INVALID_TIMES;
+			}
+			startTime = intValue;
+			if (!parseInt(END_TIME)) {
+				return RejectReason.INVALID_TIMES;
+			}
+			endTime = intValue;
+		}
+		if (!Course.isValidMeetingDaysAndTime(meetingDays, startTime, endTime)) {
+			return RejectReason.INVALID_TIMES;
+		}
+		return null;
+	}
+
+	/**
+	 * Moves to the next token on the line and records where it starts and ends in
+	 * tokenStarts[tokenCount] and tokenEnds[tokenCount].
+	 *
+	 * @return true if there was another token
+	 */
+	private boolean nextToken() {
+		int p = position;
+		if (p < end && line[p] == ',') {
+			p++;
+		}
+		if (p >= end) {
+			return false;
+		}
+		tokenStarts[tokenCount] = p;
+		while (p < end && line[p] != ',') {
+			p++;
+		}
+		tokenEnds[tokenCount] = p;
+		position = p;
+		return true;
+	}
+
+	/**
+	 * Reads a token as an int the same way Scanner.nextInt() does: an optional
+	 * sign followed by at least one digit that fits in an int.
+	 *
+	 * @param token index of the token to read
+	 * @return true if the token was a valid int, which is stored in intValue
+	 */
+	private boolean parseInt(int token) {
+		int i = tokenStarts[token];
+		int tokenEnd = tokenEnds[token];
+		boolean negative = false;
+		char first = line[i];
+		if (first == '-' || first == '+') {
+			negative = first == '-';
+			i++;
+		}
+		if (i == tokenEnd) {
+			return false;
+		}
+
+		//accumulate negatively so Integer.MIN_VALUE can be represented, like Integer.parseInt
+		int limit = negative ? Integer.MIN_VALUE : -Integer.MAX_VALUE;
+		int multiplyLimit = limit / RADIX;
+		int result = 0;
+		for (; i < tokenEnd; i++) {
+			int digit = Character.digit(line[i], RADIX);
+			if (digit < 0 || result < multiplyLimit) {
+				return false;
+			}
+			result *= RADIX;
+			if (result < limit + digit) {
+				return false;
+			}
+			result -= digit;
+		}
+		intValue = negative ? result : -result;
+		return true;
+	}
+
+	/**
+	 * Returns the length of a token.
+	 *
+	 * @param token index of the token
+	 * @return number of characters in the token
+	 */
+	private int tokenLength(int token) {
+		return tokenEnds[token] - tokenStarts[token];
+	}
+
+	/**
+	 * Creates a String for a token, reusing a pooled one with the same characters
+	 * if there is one.
+	 *
+	 * @param token index of the token
+	 * @return the token
+	 */
+	private String tokenString(int token) {
+		String pooled = pool == null ? null : pool.find(line, tokenStarts[token], tokenEnds[token]);
+		if (pooled != null) {
+			return pooled;
+		}
+		return new String(line, tokenStarts[token], tokenEnds[token] - tokenStarts[token]);
+	}
+}
@@ -5,8 +5,29 @@ package edu.ncsu.csc216.wolf_scheduler.io;
 
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
-import java.util.Scanner;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import edu.ncsu.csc216.wolf_scheduler.course.Course;
 
@@ -20,118 +41,484 @@ import edu.ncsu.csc216.wolf_scheduler.course.Course;
  */
 public class CourseRecordIO {
 
+	/** Number of bytes read at a time while looking for chunk boundaries */
+	private static final int BUFFER_SIZE = 64 * 1024;
+	/** Smallest byte range handed to a single thread when reading in parallel */
+	private static final long MIN_CHUNK_SIZE = 1024 * 1024;
+	/** Number of byte ranges created for each thread when reading in parallel */
+	private static final int CHUNKS_PER_THREAD = 4;
+	/** Largest number of bytes mapped at once when reading through a memory map */
+	private static final long MAX_MAP_SIZE = 512L * 1024 * 1024;
+
 	/**
 	 * Reads course records from a file and generates a list of valid Courses. Any
 	 * invalid Courses are ignored. If the file to read cannot be found or the
-	 * permissions are incorrect a File NotFoundException is thrown.
+	 * permissions are incorrect a File NotFoundException is thrown. Lines are split
+	 * by CourseLineParser straight out of a large character buffer filled by
+	 * CourseRecordReader rather than building a new Scanner for every line.
 	 * 
 	 * @param fileName file to read Course records from
 	 * @return a list of valid Courses
 	 * @throws FileNotFoundException if the file cannot be found or read
 	 */
 	public static ArrayList<Course> readCourseRecords(String fileName) throws FileNotFoundException {
+		return readCourseRecords(fileName, new CatalogLoadReport());
+	}
+
+	/**
+	 * Reads course records from a file and generates a list of valid Courses,
+	 * counting every accepted line and every rejected line by RejectReason in the
+	 * given report. Rejected lines are found with the non-throwing Course checks,
+	 * so no exception is created for them.
+	 * 
+	 * @param fileName file to read Course records from
+	 * @param report   report to count accepted and rejected lines in
+	 * @return a list of valid Courses
+	 * @throws FileNotFoundException if the file cannot be found or read
+	 */
+	public static ArrayList<Course> readCourseRecords(String fileName, CatalogLoadReport report)
+			throws FileNotFoundException {
+
+		// Open the file, the default charset is used just like the Scanner did
+		CourseRecordReader fileReader = new CourseRecordReader(fileName, report);
+
+		// Parse every valid Course out of the file before looking for duplicates
+		ArrayList<Course> parsed = new ArrayList<Course>();
+		try {
+			while (fileReader.readNext(parsed)) {
+				// Keep reading until the whole file is parsed
+			}
+		} catch (IOException e) {
+			// Scanner treated a read error as the end of the file, keep what was read
+		} finally {
+			// Close the Reader b/c we're responsible with our file handles
+			try {
+				fileReader.close();
+			} catch (IOException e) {
+				// Nothing left to read
+			}
+		}
 
-		Scanner fileReader = new Scanner(new FileInputStream(fileName)); // Create a file scanner to read the file
-
-		ArrayList<Course> courses = new ArrayList<Course>(); // Create an empty array of Course objects
-		while (fileReader.hasNextLine()) { // While we have more lines in the file
-			try { // Attempt to do the following
-					// Read the line, process it in readCourse, and get the object
-					// If trying to construct a Course in readCourse() results in an exception, flow
-					// of control will transfer to the catch block, below
-				Course course = readCourse(fileReader.nextLine());
-
-				// Create a flag to see if the newly created Course is a duplicate of something
-				// already in the list
-				boolean duplicate = false;
-				// Look at all the courses in our list
-				for (int i = 0; i < courses.size(); i++) {
-					// Get the course at index i
-					Course current = courses.get(i);
-					// Check if the name and section are the same
-					if (course.getName().equals(current.getName())
-							&& course.getSection().equals(current.getSection())) {
-						// It's a duplicate!
-						duplicate = true;
-						break; // We can break out of the loop, no need to continue searching
+		return removeDuplicates(parsed, report);
+	}
+
+	/**
+	 * Returns a lazy stream of the valid Courses in a file. The file is read one
+	 * buffer at a time as the stream is consumed, so jobs that only filter or count
+	 * Courses run in fixed memory no matter how big the catalog is. The file stays
+	 * open until the stream is closed, so the stream should be used in a
+	 * try-with-resources statement.
+	 * 
+	 * Unlike readCourseRecords(String), Courses with the same name and section as
+	 * an earlier Course are not removed, since that would mean remembering every
+	 * Course in the file.
+	 * 
+	 * @param fileName file to read Course records from
+	 * @return a stream of the valid Courses in file order
+	 * @throws FileNotFoundException if the file cannot be found or read
+	 * @throws UncheckedIOException  from the stream if the file cannot be read
+	 */
+	public static Stream<Course> streamCourseRecords(String fileName) throws FileNotFoundException {
+		CourseRecordReader fileReader = new CourseRecordReader(fileName);
+		Iterator<Course> courses = new Iterator<Course>() {
+
+			/** Courses parsed out of the last buffer read */
+			private ArrayList<Course> pending = new ArrayList<Course>();
+			/** index of the next Course in pending to return */
+			private int next;
+
+			@Override
+			public boolean hasNext() {
+				try {
+					// Read until a buffer has at least one valid Course or the file is done
+					while (next == pending.size()) {
+						pending.clear();
+						next = 0;
+						if (!fileReader.readNext(pending)) {
+							return false;
+						}
 					}
+					return true;
+				} catch (IOException e) {
+					throw new UncheckedIOException(e);
 				}
-				// If the course is NOT a duplicate
-				if (!duplicate) {
-					courses.add(course); // Add to the ArrayList!
-				} // Otherwise ignore
-			} catch (IllegalArgumentException e) {
-				// The line is invalid b/c we couldn't create a course, skip it!
+			}
+
+			@Override
+			public Course next() {
+				if (!hasNext()) {
+					throw new NoSuchElementException();
+				}
+				return pending.get(next++);
+			}
+		};
+		return StreamSupport
+				.stream(Spliterators.spliteratorUnknownSize(courses, Spliterator.ORDERED | Spliterator.NONNULL), false)
+				.onClose(() -> {
+					try {
+						fileReader.close();
+					} catch (IOException e) {
+						throw new UncheckedIOException(e);
+					}
+				});
+	}
+
+	/**
+	 * Reads course records from a file using up to the given number of threads.
+	 * The file is split into byte ranges that each end on a line feed, every range
+	 * is mapped and parsed on a ForkJoinPool, and the parsed Courses are joined
+	 * back together in file order before duplicates are removed. The result is the
+	 * same list readCourseRecords(String) returns.
+	 * 
+	 * Small files, a parallelism of one, and default charsets where a line feed
+	 * byte may be part of another character are read sequentially instead.
+	 * 
+	 * @param fileName    file to read Course records from
+	 * @param parallelism number of threads to parse the file with
+	 * @return a list of valid Courses
+	 * @throws FileNotFoundException if the file cannot be found or read
+	 */
+	public static ArrayList<Course> readCourseRecords(String fileName, int parallelism) throws FileNotFoundException {
+		return readCourseRecords(fileName, parallelism, new CatalogLoadReport());
+	}
+
+	/**
+	 * Reads course records from a file using up to the given number of threads,
+	 * counting every accepted line and every rejected line by RejectReason in the
+	 * given report. Repeated field values are shared across the whole catalog:
+	 * every chunk has a pool of its own in front of one map of the catalog's
+	 * values, so a value is only kept once however many chunks it appears in.
+	 * 
+	 * @param fileName    file to read Course records from
+	 * @param parallelism number of threads to parse the file with
+	 * @param report      report to count accepted and rejected lines in
+	 * @return a list of valid Courses
+	 * @throws FileNotFoundException if the file cannot be found or read
+	 */
+	public static ArrayList<Course> readCourseRecords(String fileName, int parallelism, CatalogLoadReport report)
+			throws FileNotFoundException {
+
+		Charset charset = Charset.defaultCharset();
+		if (parallelism <= 1 || !isLineFeedSafe(charset)) {
+			return readCourseRecords(fileName, report);
+		}
+
+		FileInputStream fileStream = new FileInputStream(fileName);
+		ForkJoinPool pool = null;
+		try {
+			FileChannel channel = fileStream.getChannel();
+			long[] bounds = splitAtLineFeeds(channel, parallelism);
+			// Only one chunk, not worth starting a pool for
+			if (bounds.length <= 2) {
+				return readCourseRecords(fileName, report);
+			}
+			pool = new ForkJoinPool(parallelism);
+			ConcurrentHashMap<String, String> values = new ConcurrentHashMap<String, String>();
+			ChunkResult parsed = pool.invoke(new ChunkTask(channel, charset, values, bounds, 0, bounds.length - 1));
+			report.add(parsed.report);
+			return removeDuplicates(parsed.courses, report);
+		} catch (IOException | UncheckedIOException e) {
+			// Something went wrong reading a chunk, fall back on reading the file in order
+			return readCourseRecords(fileName, report);
+		} finally {
+			if (pool != null) {
+				pool.shutdown();
+			}
+			try {
+				fileStream.close();
+			} catch (IOException e) {
+				// Nothing left to read
 			}
 		}
-		// Close the Scanner b/c we're responsible with our file handles
-		fileReader.close();
-		// Return the ArrayList with all the courses we read!
-		return courses;
 	}
 
 	/**
-	 * Scans each line of the Course Record input file and creates an appropriate
-	 * Course object
+	 * Checks if a line feed byte always means a line feed in the given charset, so
+	 * a file in that charset can be split at line feed bytes.
 	 * 
-	 * @param line the next line in the course record input file
-	 * @return constructed course object
-	 * @throws IllegalArgumentException if file is at the end or unexpected token is
-	 *                                  read
+	 * @param charset charset the file is decoded with
+	 * @return true if the file can be split at line feed bytes
 	 */
-	private static Course readCourse(String line) {
+	private static boolean isLineFeedSafe(Charset charset) {
+		return StandardCharsets.UTF_8.equals(charset) || StandardCharsets.US_ASCII.equals(charset)
+				|| StandardCharsets.ISO_8859_1.equals(charset);
+	}
 
-		//create scanner object
-		Scanner scan = new Scanner(line);
+	/**
+	 * Splits the file into byte ranges that start at the beginning of a line. Each
+	 * range but the last ends just after a line feed.
+	 * 
+	 * @param channel     channel to the file
+	 * @param parallelism number of threads that will parse the ranges
+	 * @return offsets where the ranges start followed by the size of the file
+	 * @throws IOException if the file cannot be read
+	 */
+	private static long[] splitAtLineFeeds(FileChannel channel, int parallelism) throws IOException {
+		long size = channel.size();
+		// A few chunks per thread keeps every thread busy if some lines are slower to parse
+		long chunkSize = Math.max(MIN_CHUNK_SIZE, size / (parallelism * CHUNKS_PER_THREAD));
 
-		//change delimiter to a comma ","
-		scan.useDelimiter(",");
+		ArrayList<Long> bounds = new ArrayList<Long>();
+		bounds.add(0L);
+		ByteBuffer probe = ByteBuffer.allocate(BUFFER_SIZE);
+		long next = chunkSize;
+		while (next < size) {
+			// Move forward to just past the next line feed
+			long boundary = -1;
+			long position = next - 1;
+			while (boundary < 0 && position < size) {
+				probe.clear();
+				int read = channel.read(probe, position);
+				if (read < 0) {
+					break;
+				}
+				for (int i = 0; i < read; i++) {
+					if (probe.get(i) == '\n') {
+						boundary = position + i + 1;
+						break;
+					}
+				}
+				position += read;
+			}
+			if (boundary < 0 || boundary >= size) {
+				break;
+			}
+			bounds.add(boundary);
+			next = boundary + chunkSize;
+		}
+		bounds.add(size);
+
+		long[] result = new long[bounds.size()];
+		for (int i = 0; i < result.length; i++) {
+			result[i] = bounds.get(i);
+		}
+		return result;
+	}
+
+	/**
+	 * Reads course records from a file through a memory map instead of a stream.
+	 * Lines are decoded straight out of the mapped bytes so the file is not copied
+	 * into a separate read buffer first, and repeated loads of the same file are
+	 * served from the operating system's page cache. Files larger than a single
+	 * map are mapped one window at a time. The result is the same list
+	 * readCourseRecords(String) returns.
+	 * 
+	 * Default charsets where a line feed byte may be part of another character
+	 * are read through readCourseRecords(String) instead.
+	 * 
+	 * @param fileName file to read Course records from
+	 * @return a list of valid Courses
+	 * @throws FileNotFoundException if the file cannot be found or read
+	 */
+	public static ArrayList<Course> readCourseRecordsMapped(String fileName) throws FileNotFoundException {
 
-		//try-catch block in case an processing error occurs
+		Charset charset = Charset.defaultCharset();
+		if (!isLineFeedSafe(charset)) {
+			return readCourseRecords(fileName);
+		}
+
+		FileInputStream fileStream = new FileInputStream(fileName);
 		try {
+			FileChannel channel = fileStream.getChannel();
+			ChunkResult parsed = parseChunk(channel, charset, null, 0, channel.size());
+			return removeDuplicates(parsed.courses, parsed.report);
+		} catch (IOException e) {
+			// The file could not be mapped, read it the usual way
+			return readCourseRecords(fileName);
+		} finally {
+			try {
+				fileStream.close();
+			} catch (IOException e) {
+				// Nothing left to read
+			}
+		}
+	}
+
+	/**
+	 * Maps and parses one byte range of the catalog file. The range is mapped in
+	 * windows of at most MAX_MAP_SIZE bytes that each end after a line feed, so a
+	 * line never straddles two windows.
+	 * 
+	 * @param channel channel to the file
+	 * @param charset charset the file is decoded with
+	 * @param values  field values shared by every chunk of the file, or null if
+	 *                the file is read as a single chunk
+	 * @param start   offset of the first byte of the range
+	 * @param end     offset one past the last byte of the range
+	 * @return valid Courses in the range in the order they appear and the counts
+	 *         of accepted and rejected lines
+	 * @throws IOException if the range cannot be mapped
+	 */
+	private static ChunkResult parseChunk(FileChannel channel, Charset charset,
+			ConcurrentHashMap<String, String> values, long start, long end) throws IOException {
+		CharsetDecoder decoder = charset.newDecoder().onMalformedInput(CodingErrorAction.REPLACE)
+				.onUnmappableCharacter(CodingErrorAction.REPLACE);
+		ChunkResult result = new ChunkResult();
+		CourseLineParser parser = new CourseLineParser(result.report, new StringPool(values));
+		ArrayList<Course> courses = result.courses;
 
-			//this block of code scans in the relevant data and stores it
-			//in an appropriate variable
-			String name = scan.next();
-			String title = scan.next();
-			String section = scan.next();
-			int creditHours = scan.nextInt();
-			String instructorId = scan.next();
-			String meetingDays = scan.next();
-			
-			//if arranged meeting day is found, check to see if there is 
-			//a token beside it, there should not be since arranged has no
-			//meeting times
-			//throw IAE if there is a time for an arranged course
-			if ("A".equals(meetingDays)) {
-
-				if (scan.hasNext()) {
-					scan.close();
-					throw new IllegalArgumentException("Invalid meeting day.");
-				} else {
-					scan.close();
-					return new Course(name, title, section, creditHours, instructorId, meetingDays);
+		long position = start;
+		while (position < end) {
+			MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, position,
+					Math.min(end - position, MAX_MAP_SIZE));
+			int limit = window.limit();
+			// Stop the window after its last line feed unless it reaches the end of the range
+			if (position + limit < end) {
+				int lastLineFeed = limit - 1;
+				while (lastLineFeed >= 0 && window.get(lastLineFeed) != '\n') {
+					lastLineFeed--;
+				}
+				// A single line bigger than the window is parsed as is
+				if (lastLineFeed >= 0) {
+					limit = lastLineFeed + 1;
+					window.limit(limit);
 				}
 			}
+			parser.parseLines(window, decoder, courses);
+			position += limit;
+		}
+		return result;
+	}
+
+	/**
+	 * Courses parsed out of one or more chunks along with the counts of accepted
+	 * and rejected lines.
+	 * 
+	 * @author Jay Shah (jsshah)
+	 */
+	private static class ChunkResult {
+		/** valid Courses in file order */
+		private final ArrayList<Course> courses = new ArrayList<Course>();
+		/** counts of accepted and rejected lines */
+		private final CatalogLoadReport report = new CatalogLoadReport();
+	}
+
+	/**
+	 * Fork/join task that parses a run of chunks, splitting the run in half until
+	 * a single chunk is left, and joins the results back together in file order.
+	 * 
+	 * @author Jay Shah (jsshah)
+	 */
+	private static class ChunkTask extends RecursiveTask<ChunkResult> {
 
-			//else create start time and end time and scan in the values
-			else {
+		/** ID used for serialization. */
+		private static final long serialVersionUID = 1L;
+		/** channel to the file */
+		private final transient FileChannel channel;
+		/** charset the file is decoded with */
+		private final transient Charset charset;
+		/** field values shared by every chunk of the file */
+		private final transient ConcurrentHashMap<String, String> values;
+		/** offsets where each chunk starts followed by the size of the file */
+		private final long[] bounds;
+		/** index of the first chunk of the run */
+		private final int low;
+		/** index one past the last chunk of the run */
+		private final int high;
 
-			int startTime = scan.nextInt();
-			int endTime = scan.nextInt();
+		/**
+		 * Creates a task for chunks [low, high).
+		 * 
+		 * @param channel channel to the file
+		 * @param charset charset the file is decoded with
+		 * @param values  field values shared by every chunk of the file
+		 * @param bounds  offsets where each chunk starts followed by the file size
+		 * @param low     index of the first chunk of the run
+		 * @param high    index one past the last chunk of the run
+		 */
+		ChunkTask(FileChannel channel, Charset charset, ConcurrentHashMap<String, String> values, long[] bounds,
+				int low, int high) {
+			this.channel = channel;
+			this.charset = charset;
+			this.values = values;
+			this.bounds = bounds;
+			this.low = low;
+			this.high = high;
+		}
 
-			if (scan.hasNext()) {
-				scan.close();
-				throw new IllegalArgumentException();
+		/**
+		 * Parses the run of chunks.
+		 * 
+		 * @return valid Courses of the run in file order and their line counts
+		 */
+		@Override
+		protected ChunkResult compute() {
+			if (high - low == 1) {
+				try {
+					return parseChunk(channel, charset, values, bounds[low], bounds[high]);
+				} catch (IOException e) {
+					throw new UncheckedIOException(e);
+				}
 			}
+			int middle = (low + high) >>> 1;
+			ChunkTask left = new ChunkTask(channel, charset, values, bounds, low, middle);
+			ChunkTask right = new ChunkTask(channel, charset, values, bounds, middle, high);
+			right.fork();
+			ChunkResult result = left.compute();
+			ChunkResult rightResult = right.join();
+			result.courses.addAll(rightResult.courses);
+			result.report.add(rightResult.report);
+			return result;
+		}
+	}
 
-			//return the new course object with relevant data scanned in
-			scan.close();
-			return new Course(name, title, section, creditHours, instructorId, meetingDays, startTime, endTime);
+	/**
+	 * Removes Courses that share a name and section with an earlier Course. The
+	 * first occurrence wins and the remaining Courses keep their order. Each name
+	 * and section pair is kept in a HashSet so every Course is checked in constant
+	 * time instead of against every Course accepted before it.
+	 * 
+	 * @param parsed valid Courses in the order they were read
+	 * @param report report the duplicates are counted in
+	 * @return Courses without duplicates
+	 */
+	private static ArrayList<Course> removeDuplicates(ArrayList<Course> parsed, CatalogLoadReport report) {
+		ArrayList<Course> courses = new ArrayList<Course>(parsed.size()); // Create an empty array of Course objects
+		HashSet<String> seen = new HashSet<String>(parsed.size() * 2);
+		for (int i = 0; i < parsed.size(); i++) {
+			Course course = parsed.get(i);
+			// add() returns false if the name and section were already seen
+			if (seen.add(catalogKey(course))) {
+				courses.add(course); // Add to the ArrayList!
+			} else {
+				report.acceptedThenRejected(RejectReason.DUPLICATE);
 			}
-		} catch (Exception e) {
-			scan.close();
-			throw new IllegalArgumentException();
 		}
+		report.saved(sharedBytes(courses));
+		// Return the ArrayList with all the courses we read!
+		return courses;
+	}
+
+	/**
+	 * Adds up the heap bytes saved by Courses sharing pooled field values, counting
+	 * every reference to a String after the first one as a copy that was avoided.
+	 * 
+	 * @param courses Courses in the catalog
+	 * @return estimated bytes saved
+	 */
+	private static long sharedBytes(ArrayList<Course> courses) {
+		Set<String> seen = Collections.newSetFromMap(new IdentityHashMap<String, Boolean>(courses.size()));
+		long saved = 0;
+		for (int i = 0; i < courses.size(); i++) {
+			Course c = courses.get(i);
+			String[] fields = { c.getName(), c.getTitle(), c.getSection(), c.getInstructorId(), c.getMeetingDays() };
+			for (int f = 0; f < fields.length; f++) {
+				if (!seen.add(fields[f])) {
+					saved += StringPool.heapBytes(fields[f]);
+				}
+			}
+		}
+		return saved;
+	}
+
+	/**
+	 * Creates the key used to spot duplicate Courses. Valid names and sections
+	 * never contain a comma so joining them with one is unambiguous.
+	 * 
+	 * @param course Course to create the key for
+	 * @return key made of the Course's name and section
+	 */
+	private static String catalogKey(Course course) {
+		return course.getName() + "," + course.getSection();
 	}
 }
@@ -0,0 +1,106 @@
+/**
+ *
+ */
+package edu.ncsu.csc216.wolf_scheduler.io;
+
+import java.io.Closeable;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import edu.ncsu.csc216.wolf_scheduler.course.Course;
+
+/**
+ * CourseRecordReader reads a course record file one buffer at a time and parses
+ * the lines in each buffer with a CourseLineParser. Only the current buffer and
+ * the Courses parsed out of it are held in memory, so a catalog of any size can
+ * be read in fixed memory when streaming.
+ *
+ * @author Jay Shah (jsshah)
+ */
+final class CourseRecordReader implements Closeable {
+
+	/** Number of characters read from the file at a time */
+	private static final int BUFFER_SIZE = 64 * 1024;
+
+	/** reader for the file, using the default charset just like Scanner did */
+	private final Reader fileReader;
+	/** parser for the lines of the file */
+	private final CourseLineParser parser;
+	/** characters read from the file that have not been parsed yet */
+	private char[] buf = new char[BUFFER_SIZE];
+	/** number of characters in buf */
+	private int length;
+	/** true once the whole file has been read */
+	private boolean endOfInput;
+
+	/**
+	 * Opens the given course record file for streaming. Field values are not
+	 * pooled, so nothing is kept from one buffer to the next.
+	 *
+	 * @param fileName file to read Course records from
+	 * @throws FileNotFoundException if the file cannot be found or read
+	 */
+	CourseRecordReader(String fileName) throws FileNotFoundException {
+		fileReader = new InputStreamReader(new FileInputStream(fileName));
+		parser = new CourseLineParser(new CatalogLoadReport(), null);
+	}
+
+	/**
+	 * Opens the given course record file to read the whole catalog, counting every
+	 * line read in the given report and sharing repeated field values between the
+	 * Courses read.
+	 *
+	 * @param fileName file to read Course records from
+	 * @param report   report to count accepted and rejected lines in
+	 * @throws FileNotFoundException if the file cannot be found or read
+	 */
+	CourseRecordReader(String fileName, CatalogLoadReport report) throws FileNotFoundException {
+		fileReader = new InputStreamReader(new FileInputStream(fileName));
+		parser = new CourseLineParser(report);
+	}
+
+	/**
+	 * Reads the next buffer of the file and adds the valid Courses on every line
+	 * completed by it to the given list. A line that is only partly read stays in
+	 * the buffer until the rest of it is read.
+	 *
+	 * @param courses list the valid Courses are added to
+	 * @return false if the whole file had already been read
+	 * @throws IOException if the file cannot be read
+	 */
+	boolean readNext(ArrayList<Course> courses) throws IOException {
+		if (endOfInput) {
+			return false;
+		}
+		int read = fileReader.read(buf, length, buf.length - length);
+		if (read < 0) {
+			endOfInput = true;
+		} else {
+			length += read;
+		}
+		// Parse all complete lines and keep the partial last line for the next read
+		int consumed = parser.parseLines(buf, 0, length, endOfInput, courses);
+		length -= consumed;
+		System.arraycopy(buf, consumed, buf, 0, length);
+		// A single line filled the whole buffer, make room for the rest of it
+		if (length == buf.length) {
+			buf = Arrays.copyOf(buf, buf.length * 2);
+		}
+		return true;
+	}
+
+	/**
+	 * Closes the file.
+	 *
+	 * @throws IOException if the file cannot be closed
+	 */
+	@Override
+	public void close() throws IOException {
+		fileReader.close();
+	}
+}
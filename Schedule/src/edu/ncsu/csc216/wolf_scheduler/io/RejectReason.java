@@ -0,0 +1,55 @@
+/**
+ * 
+ */
+package edu.ncsu.csc216.wolf_scheduler.io;
+
+/**
+ * Reasons a line of a course record file is not added to the catalog. The
+ * reasons follow the kinds of invalid lines listed in test-files/README.txt.
+ * 
+ * @author Jay Shah (jsshah)
+ */
+public enum RejectReason {
+
+	/** The line has fewer fields than a course record needs, including empty lines */
+	MISSING_FIELD("missing field"),
+	/** The line has fields after the meeting days of an arranged course or after the end time */
+	EXTRA_TOKENS("extra tokens"),
+	/** The name is not one to four letters, a space, and three digits */
+	INVALID_NAME("invalid name"),
+	/** The title is empty */
+	INVALID_TITLE("invalid title"),
+	/** The section is not exactly three digits */
+	INVALID_SECTION("invalid section"),
+	/** The credits are not a number or are out of range */
+	INVALID_CREDITS("invalid credits"),
+	/** The instructor id is empty */
+	INVALID_INSTRUCTOR_ID("invalid instructor id"),
+	/** The meeting days are empty, contain an invalid day, or repeat a day */
+	INVALID_MEETING_DAYS("invalid meeting days"),
+	/** A time is not a number or out of range, or the end time is before the start time */
+	INVALID_TIMES("invalid meeting times"),
+	/** The name and section match a Course read earlier in the file */
+	DUPLICATE("duplicate name and section");
+
+	/** Short description of the reason */
+	private final String description;
+
+	/**
+	 * Creates a reason with the given description.
+	 * 
+	 * @param description short description of the reason
+	 */
+	RejectReason(String description) {
+		this.description = description;
+	}
+
+	/**
+	 * Returns a short description of the reason.
+	 * 
+	 * @return the description
+	 */
+	public String getDescription() {
+		return description;
+	}
+}
@@ -0,0 +1,190 @@
+/**
+ * 
+ */
+package edu.ncsu.csc216.wolf_scheduler.io;
+
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Canonicalization pool for the field values of one catalog. Values like
+ * instructor ids, meeting days, names, and titles repeat across many records, so
+ * every value is looked up by its characters before a String is created for it,
+ * and a value seen before is shared instead of copied. The pool is an open
+ * addressing hash table of the Strings themselves, so a hit creates no garbage
+ * at all. Only values that are kept are added, so the pool never holds more
+ * distinct values than the catalog it belongs to.
+ * 
+ * When a catalog is parsed on several threads, every thread has a pool of its
+ * own in front of one concurrent map of the values of the whole catalog. A value
+ * new to a thread's pool is looked up in the map before it is added, so every
+ * thread ends up with the same String for a value, while each thread only goes
+ * to the map once per distinct value it sees.
+ * 
+ * @author Jay Shah (jsshah)
+ */
+final class StringPool {
+
+	/** Initial number of slots in the table, always a power of two */
+	private static final int INITIAL_CAPACITY = 1024;
+	/** Heap bytes of a String object without its array */
+	private static final int STRING_OBJECT_BYTES = 24;
+	/** Heap bytes of a byte array header */
+	private static final int ARRAY_HEADER_BYTES = 16;
+	/** Heap objects are aligned to this many bytes */
+	private static final int OBJECT_ALIGNMENT = 8;
+
+	/** the pooled Strings, null for an empty slot */
+	private String[] table = new String[INITIAL_CAPACITY];
+	/** number of Strings in the table */
+	private int size;
+	/** values of the whole catalog shared by the pools of all threads, or null */
+	private final ConcurrentMap<String, String> shared;
+
+	/**
+	 * Creates an empty pool for a catalog read on a single thread.
+	 */
+	StringPool() {
+		this(null);
+	}
+
+	/**
+	 * Creates an empty pool for one of the threads reading a catalog.
+	 * 
+	 * @param shared values of the whole catalog shared by all the threads, or null
+	 *               if the catalog is read on this thread only
+	 */
+	StringPool(ConcurrentMap<String, String> shared) {
+		this.shared = shared;
+	}
+
+	/**
+	 * Returns the pooled String holding chars[from, to) without adding anything to
+	 * the pool.
+	 * 
+	 * @param chars characters of the value
+	 * @param from  index of the first character
+	 * @param to    index one past the last character
+	 * @return the pooled String for the characters, or null if there is none
+	 */
+	String find(char[] chars, int from, int to) {
+		// same hash String.hashCode() computes, so pooled Strings use their cached one
+		int hash = 0;
+		for (int i = from; i < to; i++) {
+			hash = 31 * hash + chars[i];
+		}
+		int mask = table.length - 1;
+		int slot = spread(hash) & mask;
+		String s = table[slot];
+		while (s != null) {
+			if (s.hashCode() == hash && matches(s, chars, from, to)) {
+				return s;
+			}
+			slot = (slot + 1) & mask;
+			s = table[slot];
+		}
+		return null;
+	}
+
+	/**
+	 * Returns the pooled String equal to the given one, adding the given one if no
+	 * equal String was pooled yet. A value new to this pool is first replaced by
+	 * the String other threads already shared for it, if any.
+	 * 
+	 * @param value value to share
+	 * @return the canonical String for the value
+	 */
+	String intern(String value) {
+		int hash = value.hashCode();
+		int mask = table.length - 1;
+		int slot = spread(hash) & mask;
+		String s = table[slot];
+		while (s != null) {
+			if (s.hashCode() == hash && s.equals(value)) {
+				return s;
+			}
+			slot = (slot + 1) & mask;
+			s = table[slot];
+		}
+		if (shared != null) {
+			String other = shared.putIfAbsent(value, value);
+			if (other != null) {
+				value = other;
+			}
+		}
+		table[slot] = value;
+		size++;
+		if (size * 2 > table.length) {
+			grow();
+		}
+		return value;
+	}
+
+	/**
+	 * Checks if the String holds exactly chars[from, to).
+	 * 
+	 * @param s     pooled String
+	 * @param chars characters to compare with
+	 * @param from  index of the first character
+	 * @param to    index one past the last character
+	 * @return true if the characters are the same
+	 */
+	private static boolean matches(String s, char[] chars, int from, int to) {
+		if (s.length() != to - from) {
+			return false;
+		}
+		for (int i = 0; i < s.length(); i++) {
+			if (s.charAt(i) != chars[from + i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Estimates the heap bytes of a String and its array on a 64-bit JVM with
+	 * compressed references and compact strings.
+	 * 
+	 * @param s String to measure
+	 * @return estimated bytes used by a copy of s
+	 */
+	static long heapBytes(String s) {
+		int bytesPerChar = 1;
+		for (int i = 0; i < s.length() && bytesPerChar == 1; i++) {
+			if (s.charAt(i) > 0xFF) {
+				bytesPerChar = 2;
+			}
+		}
+		long array = ARRAY_HEADER_BYTES + (long) s.length() * bytesPerChar;
+		array = (array + OBJECT_ALIGNMENT - 1) / OBJECT_ALIGNMENT * OBJECT_ALIGNMENT;
+		return STRING_OBJECT_BYTES + array;
+	}
+
+	/**
+	 * Mixes the high bits of a hash into the low bits used to pick a slot.
+	 * 
+	 * @param hash String hash
+	 * @return mixed hash
+	 */
+	private static int spread(int hash) {
+		int h = hash * 0x9E3779B9;
+		return h ^ (h >>> 16);
+	}
+
+	/**
+	 * Doubles the size of the table.
+	 */
+	private void grow() {
+		String[] old = table;
+		table = new String[old.length * 2];
+		int mask = table.length - 1;
+		for (int i = 0; i < old.length; i++) {
+			if (old[i] != null) {
+				int slot = spread(old[i].hashCode()) & mask;
+				while (table[slot] != null) {
+					slot = (slot + 1) & mask;
+				}
+				table[slot] = old[i];
+			}
+		}
+	}
+}
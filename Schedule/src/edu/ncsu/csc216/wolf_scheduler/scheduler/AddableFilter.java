@@ -0,0 +1,207 @@
+/**
+ *
+ */
+package edu.ncsu.csc216.wolf_scheduler.scheduler;
+
+import java.util.ArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import edu.ncsu.csc216.wolf_scheduler.course.Activity;
+import edu.ncsu.csc216.wolf_scheduler.course.Course;
+
+/**
+ * Keeps track of which catalog Courses could still be added to the schedule.
+ * Every catalog position has a count of the scheduled activities blocking it,
+ * either by conflicting with it or by being a Course with the same name, and a
+ * Course can be added while its count is zero. Adding or removing an Activity
+ * only adds or takes away its own blocks, so the schedule is never checked over
+ * again from the start. Big catalogs are counted in parallel runs of positions
+ * on one pool of threads the filter keeps until it is closed.
+ *
+ * @author Jay Shah (jsshah)
+ */
+class AddableFilter {
+
+	/** Catalogs with at least this many Courses are counted on all threads */
+	private static final int PARALLEL_THRESHOLD = 64 * 1024;
+	/** Smallest run of positions counted by a single task */
+	private static final int MIN_RUN = 4096;
+
+	/** column store of the catalog */
+	private final CatalogColumns columns;
+	/** number of threads to count with */
+	private final int parallelism;
+	/** number of scheduled activities blocking each catalog position */
+	private final int[] blocks;
+	/** threads counting big catalogs, created on first use and kept until closed */
+	private ForkJoinPool pool;
+
+	/**
+	 * Counts the blocks of every catalog Course against the given schedule.
+	 *
+	 * @param columns     column store of the catalog
+	 * @param schedule    the scheduled activities
+	 * @param parallelism number of threads to count with
+	 */
+	AddableFilter(CatalogColumns columns, ArrayList<Activity> schedule, int parallelism) {
+		this.columns = columns;
+		this.parallelism = parallelism;
+		this.blocks = new int[columns.size()];
+		count(schedule, 1);
+	}
+
+	/**
+	 * Adds the blocks of an Activity just added to the schedule.
+	 *
+	 * @param activity Activity added to the schedule
+	 */
+	void add(Activity activity) {
+		ArrayList<Activity> added = new ArrayList<Activity>();
+		added.add(activity);
+		count(added, 1);
+	}
+
+	/**
+	 * Takes away the blocks of an Activity just removed from the schedule.
+	 *
+	 * @param activity Activity removed from the schedule
+	 */
+	void remove(Activity activity) {
+		ArrayList<Activity> removed = new ArrayList<Activity>();
+		removed.add(activity);
+		count(removed, -1);
+	}
+
+	/**
+	 * Returns the positions of the catalog Courses that nothing in the schedule
+	 * blocks.
+	 *
+	 * @return the catalog positions in increasing order
+	 */
+	int[] addable() {
+		CatalogIndexes.Postings result = new CatalogIndexes.Postings();
+		for (int i = 0; i < blocks.length; i++) {
+			if (blocks[i] == 0) {
+				result.add(i);
+			}
+		}
+		return result.toArray();
+	}
+
+	/**
+	 * Checks if nothing in the schedule blocks the catalog Course at the given
+	 * position.
+	 *
+	 * @param position catalog position
+	 * @return true if the Course could be added
+	 */
+	boolean isAddable(int position) {
+		return blocks[position] == 0;
+	}
+
+	/**
+	 * Stops the threads of the filter. Must be called once the filter is no
+	 * longer used.
+	 */
+	void close() {
+		if (pool != null) {
+			pool.shutdown();
+			pool = null;
+		}
+	}
+
+	/**
+	 * Changes the count of every position blocked by one of the given activities.
+	 *
+	 * @param activities activities whose blocks are counted
+	 * @param delta      1 to add the blocks, -1 to take them away
+	 */
+	private void count(ArrayList<Activity> activities, int delta) {
+		if (activities.isEmpty()) {
+			return;
+		}
+		Count task = new Count(this, activities, delta, 0, blocks.length);
+		if (parallelism <= 1 || blocks.length < PARALLEL_THRESHOLD) {
+			task.countRun();
+		} else {
+			if (pool == null) {
+				pool = new ForkJoinPool(parallelism);
+			}
+			pool.invoke(task);
+		}
+	}
+
+	/**
+	 * Counts the blocks of a run of catalog positions, splitting it in half until
+	 * it is short enough for one thread. Runs never share a position, so the
+	 * counts are written without locking.
+	 */
+	private static class Count extends RecursiveAction {
+
+		/** ID used for serialization. */
+		private static final long serialVersionUID = 1L;
+		/** filter holding the counts */
+		private final transient AddableFilter filter;
+		/** activities whose blocks are counted */
+		private final transient ArrayList<Activity> activities;
+		/** 1 to add the blocks, -1 to take them away */
+		private final int delta;
+		/** first position of the run */
+		private final int from;
+		/** position past the last of the run */
+		private final int to;
+
+		/**
+		 * Creates a task for positions [from, to).
+		 *
+		 * @param filter     filter holding the counts
+		 * @param activities activities whose blocks are counted
+		 * @param delta      1 to add the blocks, -1 to take them away
+		 * @param from       first position of the run
+		 * @param to         position past the last of the run
+		 */
+		Count(AddableFilter filter, ArrayList<Activity> activities, int delta, int from, int to) {
+			this.filter = filter;
+			this.activities = activities;
+			this.delta = delta;
+			this.from = from;
+			this.to = to;
+		}
+
+		/**
+		 * Counts the run.
+		 */
+		@Override
+		protected void compute() {
+			if (to - from > MIN_RUN) {
+				int mid = (from + to) >>> 1;
+				invokeAll(new Count(filter, activities, delta, from, mid), new Count(filter, activities, delta, mid, to));
+			} else {
+				countRun();
+			}
+		}
+
+		/**
+		 * Counts the run on the current thread.
+		 */
+		void countRun() {
+			CatalogColumns columns = filter.columns;
+			for (int a = 0; a < activities.size(); a++) {
+				Activity activity = activities.get(a);
+				int mask = activity.getMeetingDayMask();
+				int start = activity.getStartTime();
+				int end = activity.getEndTime();
+				// only a Course can be a duplicate of a catalog Course
+				String name = activity instanceof Course ? ((Course) activity).getName() : null;
+				for (int i = from; i < to; i++) {
+					if ((mask & columns.getMeetingDayMask(i)) != 0
+							&& Activity.timesConflict(start, end, columns.getStartTime(i), columns.getEndTime(i))
+							|| name != null && name.equals(columns.getName(i))) {
+						filter.blocks[i] += delta;
+					}
+				}
+			}
+		}
+	}
+}
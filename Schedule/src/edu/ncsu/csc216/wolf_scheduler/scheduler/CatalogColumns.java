@@ -0,0 +1,221 @@
+/**
+ * 
+ */
+package edu.ncsu.csc216.wolf_scheduler.scheduler;
+
+import java.util.ArrayList;
+
+import edu.ncsu.csc216.wolf_scheduler.course.Activity;
+import edu.ncsu.csc216.wolf_scheduler.course.Course;
+
+/**
+ * Column store of the course catalog. Every field of the Courses is kept in its
+ * own array indexed by catalog ordinal, with the numeric fields in primitive
+ * arrays, so a scan over start times, end times, credits, or meeting days reads
+ * one packed array front to back instead of following a reference to every
+ * Course. A Course is only built when getCourse() asks for it.
+ * 
+ * Meeting days are stored as the bit mask of Activity.getMeetingDayMask(), so
+ * checking whether two Courses share a day is a single AND.
+ * 
+ * @author Jay Shah (jsshah)
+ */
+public class CatalogColumns {
+
+	/** Factory for Courses whose fields came from Courses that were already checked */
+	private static final Course.TrustedFactory COURSES = Course.trustedFactory();
+
+	/** name of every Course */
+	private final String[] names;
+	/** title of every Course */
+	private final String[] titles;
+	/** section of every Course */
+	private final String[] sections;
+	/** instructor id of every Course */
+	private final String[] instructorIds;
+	/** meeting days of every Course */
+	private final String[] meetingDays;
+	/** credits of every Course */
+	private final byte[] credits;
+	/** start time of every Course */
+	private final int[] startTimes;
+	/** end time of every Course */
+	private final int[] endTimes;
+	/** meeting day bit mask of every Course, zero for arranged Courses */
+	private final byte[] dayMasks;
+
+	/**
+	 * Builds the column store for the given catalog.
+	 * 
+	 * @param catalog Courses to store, in catalog order
+	 */
+	public CatalogColumns(ArrayList<Course> catalog) {
+		int n = catalog.size();
+		names = new String[n];
+		titles = new String[n];
+		sections = new String[n];
+		instructorIds = new String[n];
+		meetingDays = new String[n];
+		credits = new byte[n];
+		startTimes = new int[n];
+		endTimes = new int[n];
+		dayMasks = new byte[n];
+		for (int i = 0; i < n; i++) {
+			Course c = catalog.get(i);
+			names[i] = c.getName();
+			titles[i] = c.getTitle();
+			sections[i] = c.getSection();
+			instructorIds[i] = c.getInstructorId();
+			meetingDays[i] = c.getMeetingDays();
+			credits[i] = (byte) c.getCredits();
+			startTimes[i] = c.getStartTime();
+			endTimes[i] = c.getEndTime();
+			dayMasks[i] = (byte) c.getMeetingDayMask();
+		}
+	}
+
+	/**
+	 * Returns the number of Courses in the store.
+	 * 
+	 * @return the number of Courses
+	 */
+	public int size() {
+		return names.length;
+	}
+
+	/**
+	 * Builds the Course at the given ordinal. The fields were validated when the
+	 * catalog was loaded, so they are not checked again.
+	 * 
+	 * @param ordinal catalog ordinal
+	 * @return a new Course with the stored fields
+	 */
+	public Course getCourse(int ordinal) {
+		return COURSES.create(names[ordinal], titles[ordinal], sections[ordinal], credits[ordinal],
+				instructorIds[ordinal], meetingDays[ordinal], startTimes[ordinal], endTimes[ordinal]);
+	}
+
+	/**
+	 * Returns the name of the Course at the given ordinal.
+	 * 
+	 * @param ordinal catalog ordinal
+	 * @return the name
+	 */
+	public String getName(int ordinal) {
+		return names[ordinal];
+	}
+
+	/**
+	 * Returns the title of the Course at the given ordinal.
+	 * 
+	 * @param ordinal catalog ordinal
+	 * @return the title
+	 */
+	public String getTitle(int ordinal) {
+		return titles[ordinal];
+	}
+
+	/**
+	 * Returns the section of the Course at the given ordinal.
+	 * 
+	 * @param ordinal catalog ordinal
+	 * @return the section
+	 */
+	public String getSection(int ordinal) {
+		return sections[ordinal];
+	}
+
+	/**
+	 * Returns the instructor id of the Course at the given ordinal.
+	 * 
+	 * @param ordinal catalog ordinal
+	 * @return the instructor id
+	 */
+	public String getInstructorId(int ordinal) {
+		return instructorIds[ordinal];
+	}
+
+	/**
+	 * Returns the meeting days of the Course at the given ordinal.
+	 * 
+	 * @param ordinal catalog ordinal
+	 * @return the meeting days
+	 */
+	public String getMeetingDays(int ordinal) {
+		return meetingDays[ordinal];
+	}
+
+	/**
+	 * Returns the credits of the Course at the given ordinal.
+	 * 
+	 * @param ordinal catalog ordinal
+	 * @return the credits
+	 */
+	public int getCredits(int ordinal) {
+		return credits[ordinal];
+	}
+
+	/**
+	 * Returns the start time of the Course at the given ordinal.
+	 * 
+	 * @param ordinal catalog ordinal
+	 * @return the start time
+	 */
+	public int getStartTime(int ordinal) {
+		return startTimes[ordinal];
+	}
+
+	/**
+	 * Returns the end time of the Course at the given ordinal.
+	 * 
+	 * @param ordinal catalog ordinal
+	 * @return the end time
+	 */
+	public int getEndTime(int ordinal) {
+		return endTimes[ordinal];
+	}
+
+	/**
+	 * Returns the meeting day bit mask of the Course at the given ordinal.
+	 * 
+	 * @param ordinal catalog ordinal
+	 * @return the meeting day mask, zero for an arranged Course
+	 */
+	public int getMeetingDayMask(int ordinal) {
+		return dayMasks[ordinal];
+	}
+
+	/**
+	 * Returns the ordinals of every Course that meets on a day of the given mask at
+	 * a time conflicting with [startTime, endTime], by the same rule as
+	 * Activity.checkConflict(). This is a straight scan over the day mask,
+	 * start time, and end time columns.
+	 * 
+	 * @param dayMask   meeting day mask to look for
+	 * @param startTime start of the time range
+	 * @param endTime   end of the time range
+	 * @return the ordinals in increasing order
+	 */
+	public int[] findOverlapping(int dayMask, int startTime, int endTime) {
+		CatalogIndexes.Postings result = new CatalogIndexes.Postings();
+		for (int i = 0; i < dayMasks.length; i++) {
+			if ((dayMasks[i] & dayMask) != 0 && Activity.timesConflict(startTimes[i], endTimes[i], startTime, endTime)) {
+				result.add(i);
+			}
+		}
+		return result.toArray();
+	}
+
+	/**
+	 * Adds up the credits of every Course in the store.
+	 * 
+	 * @return the total credits
+	 */
+	public long getTotalCredits() {
+		long total = 0;
+		for (int i = 0; i < credits.length; i++) {
+			total += credits[i];
+		}
+		return total;
+	}
+}
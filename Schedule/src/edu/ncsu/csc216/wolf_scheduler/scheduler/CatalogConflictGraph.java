@@ -0,0 +1,455 @@
+/**
+ *
+ */
+package edu.ncsu.csc216.wolf_scheduler.scheduler;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.zip.CRC32;
+
+import edu.ncsu.csc216.wolf_scheduler.course.Activity;
+
+/**
+ * Conflict graph of a catalog, with an edge between every two sections whose
+ * meeting times conflict. Sections are catalog ordinals, the same as in the
+ * CatalogColumns the graph was built from.
+ *
+ * The graph is built with a sweep over each meeting day: the sections meeting
+ * that day are sorted by start time, and each one is only compared with the
+ * sections that start before it ends. A pair that shares several days conflicts
+ * on all of them, so it is only recorded on the first day the two share. The
+ * sweeps are split into runs of sections that are worked on in parallel.
+ *
+ * The edges are stored in compressed sparse rows: the conflicts of section i
+ * are neighbors[offsets[i]] through neighbors[offsets[i + 1] - 1], in
+ * increasing order. The same layout is written to disk by write():
+ *
+ * <pre>
+ * header:  int magic, int version, int section count, int neighbor count
+ * body:    int offsets (section count + 1 of them), int neighbors
+ * trailer: long checksum of the body
+ * </pre>
+ *
+ * @author Jay Shah (jsshah)
+ */
+public class CatalogConflictGraph {
+
+	/** First four bytes of every conflict graph file, 0x89 followed by "WCG" */
+	private static final int MAGIC = 0x89574347;
+	/** Version of the file layout written by this class */
+	private static final int VERSION = 1;
+	/** Number of bytes in the header */
+	private static final int HEADER_SIZE = 16;
+	/** Number of bytes in the trailer */
+	private static final int TRAILER_SIZE = 8;
+	/** Size of the buffer used while writing */
+	private static final int BUFFER_SIZE = 64 * 1024;
+	/** Number of days with a bit in the meeting day mask */
+	private static final int DAYS = Activity.MEETING_DAY_LETTERS.length();
+	/** Smallest run of sections swept by a single task */
+	private static final int MIN_RUN = 1024;
+	/** Number of runs created for each thread */
+	private static final int RUNS_PER_THREAD = 4;
+
+	/** where the conflicts of each section start in neighbors, followed by the neighbor count */
+	private final int[] offsets;
+	/** the conflicts of every section, one row after another */
+	private final int[] neighbors;
+
+	/**
+	 * Creates a graph from its rows.
+	 *
+	 * @param offsets   where the conflicts of each section start, followed by the
+	 *                  number of neighbors
+	 * @param neighbors the conflicts of every section, one row after another
+	 */
+	private CatalogConflictGraph(int[] offsets, int[] neighbors) {
+		this.offsets = offsets;
+		this.neighbors = neighbors;
+	}
+
+	/**
+	 * Builds the conflict graph of the given catalog.
+	 *
+	 * @param columns     column store of the catalog
+	 * @param parallelism number of threads to sweep with
+	 * @return the conflict graph
+	 * @throws IllegalArgumentException if the catalog has too many conflicts to
+	 *                                  hold in one graph
+	 */
+	public static CatalogConflictGraph build(CatalogColumns columns, int parallelism) {
+		int n = columns.size();
+
+		// a same hour time may end before it starts, sweep over it as if it did not
+		int[] low = new int[n];
+		int[] high = new int[n];
+		for (int i = 0; i < n; i++) {
+			low[i] = Math.min(columns.getStartTime(i), columns.getEndTime(i));
+			high[i] = Math.max(columns.getStartTime(i), columns.getEndTime(i));
+		}
+
+		// sections meeting each day by start time, ties in catalog order
+		int[][] days = new int[DAYS][];
+		for (int day = 0; day < DAYS; day++) {
+			int count = 0;
+			long[] keys = new long[n];
+			for (int i = 0; i < n; i++) {
+				if ((columns.getMeetingDayMask(i) & 1 << day) != 0) {
+					keys[count++] = (long) low[i] << Integer.SIZE | i;
+				}
+			}
+			Arrays.sort(keys, 0, count);
+			days[day] = new int[count];
+			for (int i = 0; i < count; i++) {
+				days[day][i] = (int) keys[i];
+			}
+		}
+
+		// split every day into runs for the threads to sweep
+		int runSize = Math.max(MIN_RUN, n / (Math.max(parallelism, 1) * RUNS_PER_THREAD));
+		CatalogIndexes.Postings runs = new CatalogIndexes.Postings();
+		for (int day = 0; day < DAYS; day++) {
+			for (int from = 0; from < days[day].length; from += runSize) {
+				runs.add(day);
+				runs.add(from);
+				runs.add(Math.min(from + runSize, days[day].length));
+			}
+		}
+		Sweep sweep = new Sweep(columns, days, low, high, runs.toArray());
+		if (parallelism <= 1 || sweep.pairs.length <= 1) {
+			sweep.sweepRuns();
+		} else {
+			ForkJoinPool pool = new ForkJoinPool(parallelism);
+			try {
+				pool.invoke(sweep);
+			} finally {
+				pool.shutdown();
+			}
+		}
+
+		// count both ends of every pair and lay the rows out one after another
+		int[] offsets = new int[n + 1];
+		long total = 0;
+		for (int[] pairs : sweep.pairs) {
+			for (int p = 0; p < pairs.length; p++) {
+				offsets[pairs[p] + 1]++;
+			}
+			total += pairs.length;
+		}
+		if (total > Integer.MAX_VALUE - 8) {
+			throw new IllegalArgumentException("The catalog has too many conflicts.");
+		}
+		for (int i = 0; i < n; i++) {
+			offsets[i + 1] += offsets[i];
+		}
+		int[] neighbors = new int[(int) total];
+		int[] next = Arrays.copyOf(offsets, n);
+		for (int[] pairs : sweep.pairs) {
+			for (int p = 0; p < pairs.length; p += 2) {
+				neighbors[next[pairs[p]]++] = pairs[p + 1];
+				neighbors[next[pairs[p + 1]]++] = pairs[p];
+			}
+		}
+		for (int i = 0; i < n; i++) {
+			Arrays.sort(neighbors, offsets[i], offsets[i + 1]);
+		}
+		return new CatalogConflictGraph(offsets, neighbors);
+	}
+
+	/**
+	 * Returns the number of sections in the graph.
+	 *
+	 * @return number of sections
+	 */
+	public int getSectionCount() {
+		return offsets.length - 1;
+	}
+
+	/**
+	 * Returns the number of conflicting pairs of sections.
+	 *
+	 * @return number of edges in the graph
+	 */
+	public long getConflictCount() {
+		return neighbors.length / 2;
+	}
+
+	/**
+	 * Returns the number of sections the given section conflicts with.
+	 *
+	 * @param ordinal catalog ordinal of the section
+	 * @return number of conflicting sections
+	 */
+	public int getConflictCount(int ordinal) {
+		return offsets[ordinal + 1] - offsets[ordinal];
+	}
+
+	/**
+	 * Returns the sections the given section conflicts with.
+	 *
+	 * @param ordinal catalog ordinal of the section
+	 * @return ordinals of the conflicting sections in increasing order
+	 */
+	public int[] getConflicts(int ordinal) {
+		return Arrays.copyOfRange(neighbors, offsets[ordinal], offsets[ordinal + 1]);
+	}
+
+	/**
+	 * Checks if two sections conflict.
+	 *
+	 * @param ordinal      catalog ordinal of the first section
+	 * @param otherOrdinal catalog ordinal of the second section
+	 * @return true if there is an edge between the sections
+	 */
+	public boolean conflicts(int ordinal, int otherOrdinal) {
+		return Arrays.binarySearch(neighbors, offsets[ordinal], offsets[ordinal + 1], otherOrdinal) >= 0;
+	}
+
+	/**
+	 * Writes the graph to a file in the layout described for the class.
+	 *
+	 * @param fileName file to write the graph to
+	 * @throws IOException if cannot write to file
+	 */
+	public void write(String fileName) throws IOException {
+		DataOutputStream out = new DataOutputStream(
+				new BufferedOutputStream(new FileOutputStream(fileName), BUFFER_SIZE));
+		try {
+			out.writeInt(MAGIC);
+			out.writeInt(VERSION);
+			out.writeInt(getSectionCount());
+			out.writeInt(neighbors.length);
+
+			CRC32 checksum = new CRC32();
+			ByteBuffer body = ByteBuffer.allocate(BUFFER_SIZE);
+			writeInts(offsets, body, out, checksum);
+			writeInts(neighbors, body, out, checksum);
+			flush(body, out, checksum);
+			out.writeLong(checksum.getValue());
+		} finally {
+			out.close();
+		}
+	}
+
+	/**
+	 * Reads a graph back from a file written by write().
+	 *
+	 * @param fileName file to read
+	 * @return the graph stored in the file
+	 * @throws IOException if the file cannot be read or is not a valid conflict
+	 *                     graph
+	 */
+	public static CatalogConflictGraph read(String fileName) throws IOException {
+
+		FileInputStream fileStream = new FileInputStream(fileName);
+		try {
+			FileChannel channel = fileStream.getChannel();
+			long size = channel.size();
+			if (size < HEADER_SIZE + TRAILER_SIZE || size > Integer.MAX_VALUE) {
+				throw new IOException("Invalid conflict graph.");
+			}
+			ByteBuffer buf = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+
+			if (buf.getInt() != MAGIC) {
+				throw new IOException("Invalid conflict graph.");
+			}
+			if (buf.getInt() != VERSION) {
+				throw new IOException("Unsupported conflict graph version.");
+			}
+			int sectionCount = buf.getInt();
+			int neighborCount = buf.getInt();
+			int bodyEnd = (int) size - TRAILER_SIZE;
+			if (sectionCount < 0 || neighborCount < 0
+					|| ((long) sectionCount + 1 + neighborCount) * Integer.BYTES != bodyEnd - HEADER_SIZE) {
+				throw new IOException("Corrupt conflict graph.");
+			}
+
+			// Make sure the body was not damaged before trusting anything in it
+			ByteBuffer body = buf.duplicate();
+			body.position(HEADER_SIZE);
+			body.limit(bodyEnd);
+			CRC32 checksum = new CRC32();
+			checksum.update(body);
+			if (checksum.getValue() != buf.getLong(bodyEnd)) {
+				throw new IOException("Corrupt conflict graph.");
+			}
+
+			int[] offsets = new int[sectionCount + 1];
+			int[] neighbors = new int[neighborCount];
+			buf.asIntBuffer().get(offsets).get(neighbors);
+			if (offsets[0] != 0 || offsets[sectionCount] != neighborCount) {
+				throw new IOException("Corrupt conflict graph.");
+			}
+			for (int i = 0; i < sectionCount; i++) {
+				if (offsets[i] > offsets[i + 1]) {
+					throw new IOException("Corrupt conflict graph.");
+				}
+			}
+			for (int i = 0; i < neighborCount; i++) {
+				if (neighbors[i] < 0 || neighbors[i] >= sectionCount) {
+					throw new IOException("Corrupt conflict graph.");
+				}
+			}
+			return new CatalogConflictGraph(offsets, neighbors);
+		} finally {
+			fileStream.close();
+		}
+	}
+
+	/**
+	 * Writes an array of ints through the buffer.
+	 *
+	 * @param values   ints to write
+	 * @param body     buffer holding the bytes to write
+	 * @param out      stream to write to
+	 * @param checksum running checksum of the body
+	 * @throws IOException if cannot write to file
+	 */
+	private static void writeInts(int[] values, ByteBuffer body, DataOutputStream out, CRC32 checksum)
+			throws IOException {
+		for (int i = 0; i < values.length; i++) {
+			if (body.remaining() < Integer.BYTES) {
+				flush(body, out, checksum);
+			}
+			body.putInt(values[i]);
+		}
+	}
+
+	/**
+	 * Writes the buffered bytes to the stream and adds them to the checksum.
+	 *
+	 * @param body     buffer holding the bytes to write
+	 * @param out      stream to write to
+	 * @param checksum running checksum of the body
+	 * @throws IOException if cannot write to file
+	 */
+	private static void flush(ByteBuffer body, DataOutputStream out, CRC32 checksum) throws IOException {
+		checksum.update(body.array(), 0, body.position());
+		out.write(body.array(), 0, body.position());
+		body.clear();
+	}
+
+	/**
+	 * Sweeps a range of runs, splitting it in half until a single run is left. The
+	 * pairs found in each run are kept apart so the runs never share anything they
+	 * write to.
+	 */
+	private static class Sweep extends RecursiveAction {
+
+		/** ID used for serialization. */
+		private static final long serialVersionUID = 1L;
+		/** column store of the catalog */
+		private final transient CatalogColumns columns;
+		/** sections meeting each day, by start time */
+		private final int[][] days;
+		/** earlier of the two times of each section */
+		private final int[] low;
+		/** later of the two times of each section */
+		private final int[] high;
+		/** day, first index and index past the last of every run */
+		private final int[] runs;
+		/** conflicting pairs found in each run, two ordinals per pair */
+		private final int[][] pairs;
+		/** index of the first run of this task */
+		private final int first;
+		/** index one past the last run of this task */
+		private final int last;
+
+		/**
+		 * Creates a task for all of the given runs.
+		 *
+		 * @param columns column store of the catalog
+		 * @param days    sections meeting each day, by start time
+		 * @param low     earlier of the two times of each section
+		 * @param high    later of the two times of each section
+		 * @param runs    day, first index and index past the last of every run
+		 */
+		Sweep(CatalogColumns columns, int[][] days, int[] low, int[] high, int[] runs) {
+			this(columns, days, low, high, runs, new int[runs.length / 3][], 0, runs.length / 3);
+		}
+
+		/**
+		 * Creates a task for runs [first, last).
+		 *
+		 * @param columns column store of the catalog
+		 * @param days    sections meeting each day, by start time
+		 * @param low     earlier of the two times of each section
+		 * @param high    later of the two times of each section
+		 * @param runs    day, first index and index past the last of every run
+		 * @param pairs   conflicting pairs found in each run
+		 * @param first   index of the first run of the task
+		 * @param last    index one past the last run of the task
+		 */
+		private Sweep(CatalogColumns columns, int[][] days, int[] low, int[] high, int[] runs, int[][] pairs,
+				int first, int last) {
+			this.columns = columns;
+			this.days = days;
+			this.low = low;
+			this.high = high;
+			this.runs = runs;
+			this.pairs = pairs;
+			this.first = first;
+			this.last = last;
+		}
+
+		/**
+		 * Sweeps the runs of the task.
+		 */
+		@Override
+		protected void compute() {
+			if (last - first > 1) {
+				int mid = (first + last) >>> 1;
+				invokeAll(new Sweep(columns, days, low, high, runs, pairs, first, mid),
+						new Sweep(columns, days, low, high, runs, pairs, mid, last));
+			} else {
+				sweepRuns();
+			}
+		}
+
+		/**
+		 * Sweeps the runs of the task one after another on the current thread.
+		 */
+		void sweepRuns() {
+			for (int run = first; run < last; run++) {
+				pairs[run] = sweep(runs[run * 3], runs[run * 3 + 1], runs[run * 3 + 2]);
+			}
+		}
+
+		/**
+		 * Finds the conflicts of the sections in one run with every section that
+		 * starts at or after them on the day.
+		 *
+		 * @param day  day of the run
+		 * @param from index of the first section of the run
+		 * @param to   index past the last section of the run
+		 * @return conflicting pairs, two ordinals per pair
+		 */
+		private int[] sweep(int day, int from, int to) {
+			int[] order = days[day];
+			// days before this one, a pair sharing any of them was found there
+			int earlierDays = (1 << day) - 1;
+			CatalogIndexes.Postings found = new CatalogIndexes.Postings();
+			for (int i = from; i < to; i++) {
+				int a = order[i];
+				for (int j = i + 1; j < order.length && low[order[j]] <= high[a]; j++) {
+					int b = order[j];
+					if ((columns.getMeetingDayMask(a) & columns.getMeetingDayMask(b) & earlierDays) == 0
+							&& Activity.timesConflict(columns.getStartTime(a), columns.getEndTime(a),
+									columns.getStartTime(b), columns.getEndTime(b))) {
+						found.add(a);
+						found.add(b);
+					}
+				}
+			}
+			return found.toArray();
+		}
+	}
+}
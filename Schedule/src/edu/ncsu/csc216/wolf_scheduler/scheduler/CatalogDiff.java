@@ -0,0 +1,61 @@
+/**
+ * 
+ */
+package edu.ncsu.csc216.wolf_scheduler.scheduler;
+
+import java.util.ArrayList;
+
+import edu.ncsu.csc216.wolf_scheduler.course.Course;
+
+/**
+ * The Courses added to, removed from, and changed in the catalog when a new
+ * version of the catalog file was applied. Courses are matched between the two
+ * versions by name and section.
+ * 
+ * @author Jay Shah (jsshah)
+ */
+public class CatalogDiff {
+
+	/** Courses in the new catalog that were not in the old one */
+	private final ArrayList<Course> added = new ArrayList<Course>();
+	/** Courses in the old catalog that are not in the new one */
+	private final ArrayList<Course> removed = new ArrayList<Course>();
+	/** new versions of Courses whose other fields changed */
+	private final ArrayList<Course> changed = new ArrayList<Course>();
+
+	/**
+	 * Returns the Courses that were added.
+	 * 
+	 * @return the added Courses
+	 */
+	public ArrayList<Course> getAdded() {
+		return added;
+	}
+
+	/**
+	 * Returns the Courses that were removed.
+	 * 
+	 * @return the removed Courses
+	 */
+	public ArrayList<Course> getRemoved() {
+		return removed;
+	}
+
+	/**
+	 * Returns the new versions of the Courses that changed.
+	 * 
+	 * @return the changed Courses
+	 */
+	public ArrayList<Course> getChanged() {
+		return changed;
+	}
+
+	/**
+	 * Checks if the new catalog was the same as the old one.
+	 * 
+	 * @return true if nothing was added, removed, or changed
+	 */
+	public boolean isEmpty() {
+		return added.isEmpty() && removed.isEmpty() && changed.isEmpty();
+	}
+}
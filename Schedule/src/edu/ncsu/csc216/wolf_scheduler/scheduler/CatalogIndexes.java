@@ -0,0 +1,336 @@
+/**
+ * 
+ */
+package edu.ncsu.csc216.wolf_scheduler.scheduler;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+
+import edu.ncsu.csc216.wolf_scheduler.course.Course;
+
+/**
+ * Secondary indexes over one version of the course catalog. Each index maps a
+ * key to the sorted positions in the catalog of the Courses with that key, so
+ * the results of several lookups can be combined by merging sorted arrays. The
+ * indexes are only valid for the catalog they were built from and are thrown
+ * away by the WolfScheduler whenever the catalog changes.
+ * 
+ * @author Jay Shah (jsshah)
+ */
+class CatalogIndexes {
+
+	/** Meeting day letters a Course can have, arranged included */
+	static final String DAYS = "MTWHFA";
+	/** Empty list of positions */
+	static final int[] NONE = new int[0];
+
+	/** the catalog the indexes were built from */
+	private final ArrayList<Course> catalog;
+	/** catalog positions by instructor id */
+	private final HashMap<String, int[]> byInstructor;
+	/** catalog positions by subject, the letters before the space of the name */
+	private final HashMap<String, int[]> bySubject;
+	/** catalog positions by meeting day letter, in the order of DAYS */
+	private final int[][] byDay;
+	/** meeting time indexes by weekday, in the order of DAYS without arranged */
+	private final DayIntervalIndex[] byDayTime;
+	/** name and title prefix index, built on the first search */
+	private PrefixIndex prefixIndex;
+	/** title word index, built on the first keyword search */
+	private TitleIndex titleIndex;
+
+	/**
+	 * Builds the indexes for the given catalog.
+	 * 
+	 * @param catalog catalog to index
+	 */
+	CatalogIndexes(ArrayList<Course> catalog) {
+		this.catalog = catalog;
+		HashMap<String, Postings> instructors = new HashMap<String, Postings>();
+		HashMap<String, Postings> subjects = new HashMap<String, Postings>();
+		Postings[] days = new Postings[DAYS.length()];
+		for (int d = 0; d < days.length; d++) {
+			days[d] = new Postings();
+		}
+		for (int i = 0; i < catalog.size(); i++) {
+			Course c = catalog.get(i);
+			instructors.computeIfAbsent(c.getInstructorId(), k -> new Postings()).add(i);
+			subjects.computeIfAbsent(subjectOf(c.getName()), k -> new Postings()).add(i);
+			String meetingDays = c.getMeetingDays();
+			for (int j = 0; j < meetingDays.length(); j++) {
+				int d = DAYS.indexOf(meetingDays.charAt(j));
+				if (d >= 0) {
+					days[d].add(i);
+				}
+			}
+		}
+		byInstructor = toArrays(instructors);
+		bySubject = toArrays(subjects);
+		byDay = new int[days.length][];
+		for (int d = 0; d < days.length; d++) {
+			byDay[d] = days[d].toArray();
+		}
+
+		int[] startTimes = new int[catalog.size()];
+		int[] endTimes = new int[catalog.size()];
+		for (int i = 0; i < catalog.size(); i++) {
+			startTimes[i] = catalog.get(i).getStartTime();
+			endTimes[i] = catalog.get(i).getEndTime();
+		}
+		byDayTime = new DayIntervalIndex[DAYS.length() - 1];
+		for (int d = 0; d < byDayTime.length; d++) {
+			byDayTime[d] = new DayIntervalIndex(byDay[d], startTimes, endTimes);
+		}
+	}
+
+	/**
+	 * Returns the catalog the indexes were built from.
+	 * 
+	 * @return the indexed catalog
+	 */
+	ArrayList<Course> getCatalog() {
+		return catalog;
+	}
+
+	/**
+	 * Returns the positions of the Courses taught by the given instructor.
+	 * 
+	 * @param instructorId instructor to look up
+	 * @return sorted catalog positions, not to be modified
+	 */
+	int[] instructor(String instructorId) {
+		return byInstructor.getOrDefault(instructorId, NONE);
+	}
+
+	/**
+	 * Returns the positions of the Courses with the given subject.
+	 * 
+	 * @param subject subject to look up, like "CSC"
+	 * @return sorted catalog positions, not to be modified
+	 */
+	int[] subject(String subject) {
+		return bySubject.getOrDefault(subject, NONE);
+	}
+
+	/**
+	 * Returns the positions of the Courses meeting on the given day.
+	 * 
+	 * @param day meeting day letter, 'A' for arranged Courses
+	 * @return sorted catalog positions, not to be modified
+	 */
+	int[] day(char day) {
+		int d = DAYS.indexOf(day);
+		return d < 0 ? NONE : byDay[d];
+	}
+
+	/**
+	 * Returns the positions of the Courses meeting on at least one of the given
+	 * days at a time that conflicts with [startTime, endTime], by the same rule as
+	 * Activity.timesConflict().
+	 * 
+	 * @param meetingDays weekday letters of the window
+	 * @param startTime   start of the window
+	 * @param endTime     end of the window
+	 * @return sorted catalog positions
+	 */
+	int[] overlapping(String meetingDays, int startTime, int endTime) {
+		Postings result = new Postings();
+		for (int i = 0; i < meetingDays.length(); i++) {
+			int d = DAYS.indexOf(meetingDays.charAt(i));
+			if (d >= 0 && d < byDayTime.length) {
+				byDayTime[d].overlapping(startTime, endTime, result);
+			}
+		}
+		return result.toSortedSet();
+	}
+
+	/**
+	 * Returns the positions of the Courses meeting only on the given days, with
+	 * both their start and end times inside [startTime, endTime].
+	 * 
+	 * @param meetingDays weekday letters of the window
+	 * @param startTime   start of the window
+	 * @param endTime     end of the window
+	 * @return sorted catalog positions
+	 */
+	int[] within(String meetingDays, int startTime, int endTime) {
+		Postings result = new Postings();
+		for (int i = 0; i < meetingDays.length(); i++) {
+			int d = DAYS.indexOf(meetingDays.charAt(i));
+			if (d >= 0 && d < byDayTime.length) {
+				byDayTime[d].within(startTime, endTime, result);
+			}
+		}
+		int[] candidates = result.toSortedSet();
+
+		// a Course also meeting on a day outside of the window does not fit
+		int n = 0;
+		for (int i = 0; i < candidates.length; i++) {
+			String courseDays = catalog.get(candidates[i]).getMeetingDays();
+			boolean inside = true;
+			for (int j = 0; j < courseDays.length() && inside; j++) {
+				inside = meetingDays.indexOf(courseDays.charAt(j)) >= 0;
+			}
+			if (inside) {
+				candidates[n++] = candidates[i];
+			}
+		}
+		return n == candidates.length ? candidates : Arrays.copyOf(candidates, n);
+	}
+
+	/**
+	 * Returns the positions of up to limit Courses whose name or title starts with
+	 * the given prefix, ignoring case.
+	 * 
+	 * @param prefix start of the name or title
+	 * @param limit  largest number of positions to return
+	 * @return catalog positions, name matches first
+	 */
+	int[] prefix(String prefix, int limit) {
+		if (prefixIndex == null) {
+			prefixIndex = new PrefixIndex(catalog);
+		}
+		return prefixIndex.search(prefix, limit);
+	}
+
+	/**
+	 * Returns the positions of up to limit Courses with every word of the query in
+	 * their title, best match first.
+	 * 
+	 * @param keywords words to look for
+	 * @param limit    largest number of positions to return
+	 * @return catalog positions, best match first
+	 */
+	int[] keywords(String keywords, int limit) {
+		if (titleIndex == null) {
+			titleIndex = new TitleIndex(catalog);
+		}
+		return titleIndex.search(keywords, limit);
+	}
+
+	/**
+	 * Returns the subject of a Course name, the letters before the space.
+	 * 
+	 * @param name Course name
+	 * @return subject of the name
+	 */
+	static String subjectOf(String name) {
+		int space = name.indexOf(' ');
+		return space < 0 ? name : name.substring(0, space);
+	}
+
+	/**
+	 * Returns the positions in both sorted arrays.
+	 * 
+	 * @param a sorted positions
+	 * @param b sorted positions
+	 * @return sorted positions in a and in b
+	 */
+	static int[] intersect(int[] a, int[] b) {
+		int[] result = new int[Math.min(a.length, b.length)];
+		int n = 0;
+		int i = 0;
+		int j = 0;
+		while (i < a.length && j < b.length) {
+			if (a[i] < b[j]) {
+				i++;
+			} else if (a[i] > b[j]) {
+				j++;
+			} else {
+				result[n++] = a[i];
+				i++;
+				j++;
+			}
+		}
+		return n == result.length ? result : Arrays.copyOf(result, n);
+	}
+
+	/**
+	 * Returns the positions in either sorted array.
+	 * 
+	 * @param a sorted positions
+	 * @param b sorted positions
+	 * @return sorted positions in a or in b, each once
+	 */
+	static int[] union(int[] a, int[] b) {
+		int[] result = new int[a.length + b.length];
+		int n = 0;
+		int i = 0;
+		int j = 0;
+		while (i < a.length || j < b.length) {
+			if (j == b.length || i < a.length && a[i] < b[j]) {
+				result[n++] = a[i++];
+			} else if (i == a.length || b[j] < a[i]) {
+				result[n++] = b[j++];
+			} else {
+				result[n++] = a[i];
+				i++;
+				j++;
+			}
+		}
+		return n == result.length ? result : Arrays.copyOf(result, n);
+	}
+
+	/**
+	 * Trims every list of positions in the map to an array.
+	 * 
+	 * @param postings lists of positions by key
+	 * @return arrays of positions by key
+	 */
+	private static HashMap<String, int[]> toArrays(HashMap<String, Postings> postings) {
+		HashMap<String, int[]> arrays = new HashMap<String, int[]>(postings.size() * 2);
+		postings.forEach((key, list) -> arrays.put(key, list.toArray()));
+		return arrays;
+	}
+
+	/**
+	 * Growable list of catalog positions.
+	 * 
+	 * @author Jay Shah (jsshah)
+	 */
+	static class Postings {
+		/** the positions */
+		private int[] positions = new int[4];
+		/** number of positions in the list */
+		private int size;
+
+		/**
+		 * Adds a position to the end of the list.
+		 * 
+		 * @param position catalog position to add
+		 */
+		void add(int position) {
+			if (size == positions.length) {
+				positions = Arrays.copyOf(positions, size * 2);
+			}
+			positions[size++] = position;
+		}
+
+		/**
+		 * Returns the positions as an array of the exact size.
+		 * 
+		 * @return the positions
+		 */
+		int[] toArray() {
+			return Arrays.copyOf(positions, size);
+		}
+
+		/**
+		 * Returns the positions sorted, with each position only once.
+		 * 
+		 * @return the distinct positions in increasing order
+		 */
+		int[] toSortedSet() {
+			int[] sorted = toArray();
+			Arrays.sort(sorted);
+			int n = 0;
+			for (int i = 0; i < sorted.length; i++) {
+				if (n == 0 || sorted[n - 1] != sorted[i]) {
+					sorted[n++] = sorted[i];
+				}
+			}
+			return n == sorted.length ? sorted : Arrays.copyOf(sorted, n);
+		}
+	}
+}
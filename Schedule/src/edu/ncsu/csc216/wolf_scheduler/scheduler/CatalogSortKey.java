@@ -0,0 +1,48 @@
+/**
+ * 
+ */
+package edu.ncsu.csc216.wolf_scheduler.scheduler;
+
+import java.util.Comparator;
+
+import edu.ncsu.csc216.wolf_scheduler.course.Course;
+
+/**
+ * Orders a page of the course catalog can be taken from. Courses that compare
+ * equal stay in catalog order.
+ * 
+ * @author Jay Shah (jsshah)
+ */
+public enum CatalogSortKey {
+	/** the order the Courses were read from the catalog file */
+	CATALOG((a, b) -> 0),
+	/** by name, then section */
+	NAME(Comparator.comparing(Course::getName).thenComparing(Course::getSection)),
+	/** by title, then name and section */
+	TITLE(Comparator.comparing(Course::getTitle).thenComparing(NAME.comparator)),
+	/** by instructor id, then name and section */
+	INSTRUCTOR(Comparator.comparing(Course::getInstructorId).thenComparing(NAME.comparator)),
+	/** by start time with arranged Courses first, then name and section */
+	START_TIME(Comparator.comparingInt(Course::getStartTime).thenComparing(NAME.comparator));
+
+	/** order of the Courses for this key */
+	private final Comparator<Course> comparator;
+
+	/**
+	 * Creates a sort key.
+	 * 
+	 * @param comparator order of the Courses for the key
+	 */
+	CatalogSortKey(Comparator<Course> comparator) {
+		this.comparator = comparator;
+	}
+
+	/**
+	 * Returns the order of the Courses for this key.
+	 * 
+	 * @return comparator of Courses
+	 */
+	Comparator<Course> getComparator() {
+		return comparator;
+	}
+}
@@ -0,0 +1,179 @@
+/**
+ * 
+ */
+package edu.ncsu.csc216.wolf_scheduler.scheduler;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.concurrent.atomic.AtomicReference;
+
+import edu.ncsu.csc216.wolf_scheduler.course.Course;
+import edu.ncsu.csc216.wolf_scheduler.io.CatalogLoadReport;
+
+/**
+ * Watches a catalog file with a WatchService on a background thread. Whenever
+ * the file changes it is parsed again on that thread and the new catalog is kept
+ * as a pending update, which the WolfScheduler applies on its own thread the
+ * next time the catalog is used. The file is only parsed again when its size or
+ * modification time actually changed.
+ * 
+ * @author Jay Shah (jsshah)
+ */
+class CatalogWatcher implements Runnable {
+
+	/** Time to wait for a writer to finish after a change is seen, in milliseconds */
+	private static final long SETTLE_TIME = 200;
+
+	/** catalog file being watched */
+	private final File catalogFile;
+	/** newest parsed catalog that has not been applied yet */
+	private final AtomicReference<Update> pending = new AtomicReference<Update>();
+	/** watch service for the directory holding the catalog file */
+	private WatchService watchService;
+	/** thread running the watcher */
+	private Thread thread;
+	/** size of the file when it was last parsed */
+	private long lastLength;
+	/** modification time of the file when it was last parsed */
+	private long lastModified;
+
+	/**
+	 * Creates a watcher for the given catalog file. The file's current contents
+	 * are assumed to already be loaded.
+	 * 
+	 * @param fileName catalog file to watch
+	 */
+	CatalogWatcher(String fileName) {
+		this.catalogFile = new File(fileName).getAbsoluteFile();
+		this.lastLength = catalogFile.length();
+		this.lastModified = catalogFile.lastModified();
+	}
+
+	/**
+	 * Starts watching the catalog file on a daemon thread.
+	 * 
+	 * @throws IOException if the directory of the file cannot be watched
+	 */
+	void start() throws IOException {
+		watchService = FileSystems.getDefault().newWatchService();
+		try {
+			catalogFile.getParentFile().toPath().register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+					StandardWatchEventKinds.ENTRY_MODIFY);
+		} catch (IOException | RuntimeException e) {
+			// no thread will ever close the service, so close it here
+			watchService.close();
+			throw e;
+		}
+		thread = new Thread(this, "WolfScheduler catalog watcher");
+		thread.setDaemon(true);
+		thread.start();
+	}
+
+	/**
+	 * Stops watching the catalog file. Any pending update is dropped.
+	 */
+	void stop() {
+		try {
+			watchService.close();
+		} catch (IOException e) {
+			// the watcher thread stops either way
+		}
+		pending.set(null);
+	}
+
+	/**
+	 * Returns the newest parsed catalog that has not been applied yet and clears
+	 * it, so each update is only handed out once.
+	 * 
+	 * @return the pending update or null if the file has not changed
+	 */
+	Update takeUpdate() {
+		return pending.getAndSet(null);
+	}
+
+	/**
+	 * Waits for changes to the catalog file and parses the file again after each
+	 * one, until the watcher is stopped.
+	 */
+	@Override
+	public void run() {
+		Path fileName = catalogFile.toPath().getFileName();
+		try {
+			while (true) {
+				WatchKey key = watchService.take();
+				boolean changed = false;
+				for (WatchEvent<?> event : key.pollEvents()) {
+					if (fileName.equals(event.context())) {
+						changed = true;
+					}
+				}
+				key.reset();
+				if (changed) {
+					// give the writer a moment to finish and fold in the events it causes
+					Thread.sleep(SETTLE_TIME);
+					WatchKey more = watchService.poll();
+					while (more != null) {
+						more.pollEvents();
+						more.reset();
+						more = watchService.poll();
+					}
+					reload();
+				}
+			}
+		} catch (InterruptedException | ClosedWatchServiceException e) {
+			// the watcher was stopped
+		}
+	}
+
+	/**
+	 * Parses the catalog file again if its size or modification time changed
+	 * since it was last parsed.
+	 */
+	private void reload() {
+		long length = catalogFile.length();
+		long modified = catalogFile.lastModified();
+		if (length == lastLength && modified == lastModified) {
+			return;
+		}
+		try {
+			CatalogLoadReport report = new CatalogLoadReport();
+			ArrayList<Course> courses = WolfScheduler.loadCatalog(catalogFile.getPath(), report);
+			lastLength = length;
+			lastModified = modified;
+			pending.set(new Update(courses, report));
+		} catch (IllegalArgumentException e) {
+			// the file is gone for now, wait for it to come back
+		}
+	}
+
+	/**
+	 * A parsed catalog waiting to be applied along with its load report.
+	 * 
+	 * @author Jay Shah (jsshah)
+	 */
+	static class Update {
+		/** the new catalog */
+		final ArrayList<Course> courses;
+		/** counts of the accepted and rejected lines of the new catalog */
+		final CatalogLoadReport report;
+
+		/**
+		 * Creates an update.
+		 * 
+		 * @param courses the new catalog
+		 * @param report  counts of the accepted and rejected lines
+		 */
+		Update(ArrayList<Course> courses, CatalogLoadReport report) {
+			this.courses = courses;
+			this.report = report;
+		}
+	}
+}
@@ -0,0 +1,241 @@
+/**
+ * 
+ */
+package edu.ncsu.csc216.wolf_scheduler.scheduler;
+
+import java.util.ArrayList;
+
+import edu.ncsu.csc216.wolf_scheduler.course.Course;
+
+/**
+ * A query for catalog Courses by instructor, subject, meeting day, or meeting
+ * time, which can be combined with and() and or(). A query is answered by
+ * WolfScheduler.findCourses() from indexes over the catalog, without looking at
+ * every Course.
+ * 
+ * <pre>
+ * CourseQuery.subject("CSC").and(CourseQuery.meetingDay('F').or(CourseQuery.instructor("sesmith5")))
+ * </pre>
+ * 
+ * @author Jay Shah (jsshah)
+ */
+public final class CourseQuery {
+
+	/** Kinds of query */
+	private enum Kind {
+		/** Courses taught by an instructor */
+		INSTRUCTOR,
+		/** Courses with a subject */
+		SUBJECT,
+		/** Courses meeting on a day */
+		DAY,
+		/** Courses meeting at a time overlapping a window */
+		OVERLAPPING,
+		/** Courses meeting only inside a window */
+		WITHIN,
+		/** Courses matching both queries */
+		AND,
+		/** Courses matching either query */
+		OR
+	}
+
+	/** kind of query */
+	private final Kind kind;
+	/** instructor id or subject looked up, or meeting days of the window */
+	private final String key;
+	/** meeting day looked up */
+	private final char day;
+	/** start of the window */
+	private final int startTime;
+	/** end of the window */
+	private final int endTime;
+	/** first query combined */
+	private final CourseQuery left;
+	/** second query combined */
+	private final CourseQuery right;
+
+	/**
+	 * Creates a query.
+	 * 
+	 * @param kind      kind of query
+	 * @param key       instructor id or subject looked up, or window meeting days
+	 * @param day       meeting day looked up
+	 * @param startTime start of the window
+	 * @param endTime   end of the window
+	 * @param left      first query combined
+	 * @param right     second query combined
+	 */
+	private CourseQuery(Kind kind, String key, char day, int startTime, int endTime, CourseQuery left,
+			CourseQuery right) {
+		this.kind = kind;
+		this.key = key;
+		this.day = day;
+		this.startTime = startTime;
+		this.endTime = endTime;
+		this.left = left;
+		this.right = right;
+	}
+
+	/**
+	 * Returns a query for the Courses taught by the given instructor.
+	 * 
+	 * @param instructorId instructor id to look for
+	 * @return the query
+	 * @throws IllegalArgumentException if instructorId is null
+	 */
+	public static CourseQuery instructor(String instructorId) {
+		if (instructorId == null) {
+			throw new IllegalArgumentException("Invalid instructor id.");
+		}
+		return new CourseQuery(Kind.INSTRUCTOR, instructorId, ' ', 0, 0, null, null);
+	}
+
+	/**
+	 * Returns a query for the Courses with the given subject, the letters before
+	 * the space of the Course name such as "CSC".
+	 * 
+	 * @param subject subject to look for
+	 * @return the query
+	 * @throws IllegalArgumentException if subject is null
+	 */
+	public static CourseQuery subject(String subject) {
+		if (subject == null) {
+			throw new IllegalArgumentException("Invalid subject.");
+		}
+		return new CourseQuery(Kind.SUBJECT, subject, ' ', 0, 0, null, null);
+	}
+
+	/**
+	 * Returns a query for the Courses meeting on the given day. 'A' finds the
+	 * arranged Courses.
+	 * 
+	 * @param day meeting day letter to look for
+	 * @return the query
+	 * @throws IllegalArgumentException if day is not one of M, T, W, H, F, or A
+	 */
+	public static CourseQuery meetingDay(char day) {
+		if (CatalogIndexes.DAYS.indexOf(day) < 0) {
+			throw new IllegalArgumentException("Invalid meeting days.");
+		}
+		return new CourseQuery(Kind.DAY, null, day, 0, 0, null, null);
+	}
+
+	/**
+	 * Returns a query for the Courses that meet on at least one of the given days
+	 * at a time conflicting with the window, by the same rule as checkConflict(),
+	 * so a shared end point counts and a time ending before it starts within the
+	 * same hour is handled the same way. Arranged Courses never overlap a window.
+	 * 
+	 * @param meetingDays weekday letters of the window, like "TH"
+	 * @param startTime   start of the window in military time
+	 * @param endTime     end of the window in military time
+	 * @return the query
+	 * @throws IllegalArgumentException if the window is not valid Course meeting
+	 *                                  days and times
+	 */
+	public static CourseQuery overlapping(String meetingDays, int startTime, int endTime) {
+		return window(Kind.OVERLAPPING, meetingDays, startTime, endTime);
+	}
+
+	/**
+	 * Returns a query for the Courses that fit in the window: they meet only on the
+	 * given days and both their start and end times are inside the window, from
+	 * its earlier to its later time. Arranged Courses never fit in a window.
+	 * 
+	 * @param meetingDays weekday letters of the window, like "TH"
+	 * @param startTime   start of the window in military time
+	 * @param endTime     end of the window in military time
+	 * @return the query
+	 * @throws IllegalArgumentException if the window is not valid Course meeting
+	 *                                  days and times
+	 */
+	public static CourseQuery within(String meetingDays, int startTime, int endTime) {
+		return window(Kind.WITHIN, meetingDays, startTime, endTime);
+	}
+
+	/**
+	 * Returns a query over a window of meeting days and times.
+	 * 
+	 * @param kind        kind of window query
+	 * @param meetingDays weekday letters of the window
+	 * @param startTime   start of the window
+	 * @param endTime     end of the window
+	 * @return the query
+	 * @throws IllegalArgumentException if the window is not valid Course meeting
+	 *                                  days and times
+	 */
+	private static CourseQuery window(Kind kind, String meetingDays, int startTime, int endTime) {
+		if ("A".equals(meetingDays) || !Course.isValidMeetingDaysAndTime(meetingDays, startTime, endTime)) {
+			throw new IllegalArgumentException("Invalid meeting days and times.");
+		}
+		return new CourseQuery(kind, meetingDays, ' ', startTime, endTime, null, null);
+	}
+
+	/**
+	 * Returns a query for the Courses matching both this query and the other one.
+	 * 
+	 * @param other query to combine with
+	 * @return the combined query
+	 * @throws IllegalArgumentException if other is null
+	 */
+	public CourseQuery and(CourseQuery other) {
+		if (other == null) {
+			throw new IllegalArgumentException("Invalid query.");
+		}
+		return new CourseQuery(Kind.AND, null, ' ', 0, 0, this, other);
+	}
+
+	/**
+	 * Returns a query for the Courses matching this query, the other one, or both.
+	 * 
+	 * @param other query to combine with
+	 * @return the combined query
+	 * @throws IllegalArgumentException if other is null
+	 */
+	public CourseQuery or(CourseQuery other) {
+		if (other == null) {
+			throw new IllegalArgumentException("Invalid query.");
+		}
+		return new CourseQuery(Kind.OR, null, ' ', 0, 0, this, other);
+	}
+
+	/**
+	 * Adds the subjects looked up anywhere in the query, so the departments they
+	 * belong to can be read before the query is answered.
+	 * 
+	 * @param subjects list the subjects are added to
+	 */
+	void addSubjects(ArrayList<String> subjects) {
+		if (kind == Kind.SUBJECT) {
+			subjects.add(key);
+		} else if (kind == Kind.AND || kind == Kind.OR) {
+			left.addSubjects(subjects);
+			right.addSubjects(subjects);
+		}
+	}
+
+	/**
+	 * Answers the query from the given indexes.
+	 * 
+	 * @param indexes indexes over the catalog
+	 * @return sorted catalog positions of the matching Courses, not to be modified
+	 */
+	int[] evaluate(CatalogIndexes indexes) {
+		switch (kind) {
+		case INSTRUCTOR:
+			return indexes.instructor(key);
+		case SUBJECT:
+			return indexes.subject(key);
+		case DAY:
+			return indexes.day(day);
+		case OVERLAPPING:
+			return indexes.overlapping(key, startTime, endTime);
+		case WITHIN:
+			return indexes.within(key, startTime, endTime);
+		case AND:
+			return CatalogIndexes.intersect(left.evaluate(indexes), right.evaluate(indexes));
+		default:
+			return CatalogIndexes.union(left.evaluate(indexes), right.evaluate(indexes));
+		}
+	}
+}
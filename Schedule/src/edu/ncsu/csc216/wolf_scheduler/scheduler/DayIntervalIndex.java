@@ -0,0 +1,216 @@
+/**
+ * 
+ */
+package edu.ncsu.csc216.wolf_scheduler.scheduler;
+
+import java.util.Arrays;
+
+import edu.ncsu.csc216.wolf_scheduler.course.Activity;
+
+/**
+ * Interval index over the meeting times of the catalog Courses that meet on one
+ * day. The Courses are sorted by start time, and a segment tree over that order
+ * keeps the latest and earliest end time of every range, so a query only visits
+ * the ranges that can hold a match. Both kinds of query take O(log n + k) time
+ * for k matches.
+ * 
+ * A time may end before it starts within the same hour, so every Course is
+ * indexed on the range from the earlier to the later of its two times. Every
+ * conflicting time overlaps that range, and overlapping() filters the Courses
+ * found with Activity.timesConflict() so it gives exactly the Courses that
+ * conflict with the window.
+ * 
+ * @author Jay Shah (jsshah)
+ */
+class DayIntervalIndex {
+
+	/** catalog positions sorted by the earlier of the two times */
+	private final int[] positions;
+	/** earlier of the two times of each Course, in the order of positions */
+	private final int[] starts;
+	/** later of the two times of each Course, in the order of positions */
+	private final int[] ends;
+	/** start time of each Course, in the order of positions */
+	private final int[] startTimes;
+	/** end time of each Course, in the order of positions */
+	private final int[] endTimes;
+	/** latest end time in each segment tree node */
+	private final int[] maxEnd;
+	/** earliest end time in each segment tree node */
+	private final int[] minEnd;
+
+	/**
+	 * Builds the index over the given Courses.
+	 * 
+	 * @param coursePositions catalog positions of the Courses meeting on the day
+	 * @param startTimes      start time of every catalog Course by position
+	 * @param endTimes        end time of every catalog Course by position
+	 */
+	DayIntervalIndex(int[] coursePositions, int[] startTimes, int[] endTimes) {
+		int n = coursePositions.length;
+
+		// sort by the earlier time, then by position so equal times keep catalog order
+		long[] keys = new long[n];
+		for (int i = 0; i < n; i++) {
+			int p = coursePositions[i];
+			keys[i] = (long) Math.min(startTimes[p], endTimes[p]) << Integer.SIZE | p;
+		}
+		Arrays.sort(keys);
+		positions = new int[n];
+		starts = new int[n];
+		ends = new int[n];
+		this.startTimes = new int[n];
+		this.endTimes = new int[n];
+		for (int i = 0; i < n; i++) {
+			positions[i] = (int) keys[i];
+			this.startTimes[i] = startTimes[positions[i]];
+			this.endTimes[i] = endTimes[positions[i]];
+			starts[i] = Math.min(this.startTimes[i], this.endTimes[i]);
+			ends[i] = Math.max(this.startTimes[i], this.endTimes[i]);
+		}
+		maxEnd = new int[Math.max(1, 4 * n)];
+		minEnd = new int[Math.max(1, 4 * n)];
+		if (n > 0) {
+			build(1, 0, n);
+		}
+	}
+
+	/**
+	 * Adds the positions of the Courses whose time conflicts with the window by the
+	 * same rule as Activity.timesConflict(), so a shared end point counts as an
+	 * overlap just like checkConflict() does.
+	 * 
+	 * @param startTime start of the window
+	 * @param endTime   end of the window
+	 * @param result    list the positions are added to
+	 */
+	void overlapping(int startTime, int endTime, CatalogIndexes.Postings result) {
+		CatalogIndexes.Postings candidates = new CatalogIndexes.Postings();
+		int to = firstStartAfter(Math.max(startTime, endTime));
+		if (to > 0) {
+			collectEndAtLeast(1, 0, starts.length, to, Math.min(startTime, endTime), candidates);
+		}
+		// every conflict overlaps the ranges, drop the overlaps that do not conflict
+		int[] found = candidates.toArray();
+		for (int i = 0; i < found.length; i++) {
+			if (Activity.timesConflict(startTime, endTime, startTimes[found[i]], endTimes[found[i]])) {
+				result.add(positions[found[i]]);
+			}
+		}
+	}
+
+	/**
+	 * Adds the positions of the Courses whose start and end times both lie inside
+	 * the window, from the earlier to the later of its two times.
+	 * 
+	 * @param startTime start of the window
+	 * @param endTime   end of the window
+	 * @param result    list the positions are added to
+	 */
+	void within(int startTime, int endTime, CatalogIndexes.Postings result) {
+		int low = Math.min(startTime, endTime);
+		int high = Math.max(startTime, endTime);
+		int from = firstStartAfter(low - 1);
+		int to = firstStartAfter(high);
+		if (from < to) {
+			CatalogIndexes.Postings found = new CatalogIndexes.Postings();
+			collectEndAtMost(1, 0, starts.length, from, to, high, found);
+			int[] indexes = found.toArray();
+			for (int i = 0; i < indexes.length; i++) {
+				result.add(positions[indexes[i]]);
+			}
+		}
+	}
+
+	/**
+	 * Returns the index of the first Course whose earlier time is after the given
+	 * time.
+	 * 
+	 * @param time time to search for
+	 * @return index into the start time order
+	 */
+	private int firstStartAfter(int time) {
+		int lo = 0;
+		int hi = starts.length;
+		while (lo < hi) {
+			int mid = (lo + hi) >>> 1;
+			if (starts[mid] <= time) {
+				lo = mid + 1;
+			} else {
+				hi = mid;
+			}
+		}
+		return lo;
+	}
+
+	/**
+	 * Fills in the end times of the segment tree node covering [lo, hi).
+	 * 
+	 * @param node segment tree node
+	 * @param lo   first index covered
+	 * @param hi   index one past the last covered
+	 */
+	private void build(int node, int lo, int hi) {
+		if (hi - lo == 1) {
+			maxEnd[node] = ends[lo];
+			minEnd[node] = ends[lo];
+			return;
+		}
+		int mid = (lo + hi) >>> 1;
+		build(2 * node, lo, mid);
+		build(2 * node + 1, mid, hi);
+		maxEnd[node] = Math.max(maxEnd[2 * node], maxEnd[2 * node + 1]);
+		minEnd[node] = Math.min(minEnd[2 * node], minEnd[2 * node + 1]);
+	}
+
+	/**
+	 * Adds the indexes in [0, to) of the node covering [lo, hi) that end at or
+	 * after the given time.
+	 * 
+	 * @param node    segment tree node
+	 * @param lo      first index covered
+	 * @param hi      index one past the last covered
+	 * @param to      index one past the last to search
+	 * @param endTime earliest end time to add
+	 * @param result  list the indexes are added to
+	 */
+	private void collectEndAtLeast(int node, int lo, int hi, int to, int endTime,
+			CatalogIndexes.Postings result) {
+		if (lo >= to || maxEnd[node] < endTime) {
+			return;
+		}
+		if (hi - lo == 1) {
+			result.add(lo);
+			return;
+		}
+		int mid = (lo + hi) >>> 1;
+		collectEndAtLeast(2 * node, lo, mid, to, endTime, result);
+		collectEndAtLeast(2 * node + 1, mid, hi, to, endTime, result);
+	}
+
+	/**
+	 * Adds the indexes in [from, to) of the node covering [lo, hi) that end at or
+	 * before the given time.
+	 * 
+	 * @param node    segment tree node
+	 * @param lo      first index covered
+	 * @param hi      index one past the last covered
+	 * @param from    first index to search
+	 * @param to      index one past the last to search
+	 * @param endTime latest end time to add
+	 * @param result  list the indexes are added to
+	 */
+	private void collectEndAtMost(int node, int lo, int hi, int from, int to, int endTime,
+			CatalogIndexes.Postings result) {
+		if (hi <= from || lo >= to || minEnd[node] > endTime) {
+			return;
+		}
+		if (hi - lo == 1) {
+			result.add(lo);
+			return;
+		}
+		int mid = (lo + hi) >>> 1;
+		collectEndAtMost(2 * node, lo, mid, from, to, endTime, result);
+		collectEndAtMost(2 * node + 1, mid, hi, from, to, endTime, result);
+	}
+}
@@ -0,0 +1,147 @@
+/**
+ * 
+ */
+package edu.ncsu.csc216.wolf_scheduler.scheduler;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Locale;
+
+import edu.ncsu.csc216.wolf_scheduler.course.Course;
+
+/**
+ * Type-ahead index over the names and titles of the catalog Courses. The
+ * lower case names and titles are kept in sorted arrays, so the Courses
+ * starting with a prefix are found with a binary search followed by a scan of
+ * just the matching range.
+ * 
+ * @author Jay Shah (jsshah)
+ */
+class PrefixIndex {
+
+	/** lower case Course names in sorted order */
+	private final String[] names;
+	/** catalog position of each name */
+	private final int[] namePositions;
+	/** lower case Course titles in sorted order */
+	private final String[] titles;
+	/** catalog position of each title */
+	private final int[] titlePositions;
+
+	/**
+	 * Builds the index over the given catalog.
+	 * 
+	 * @param catalog catalog to index
+	 */
+	PrefixIndex(ArrayList<Course> catalog) {
+		String[] nameKeys = new String[catalog.size()];
+		String[] titleKeys = new String[catalog.size()];
+		for (int i = 0; i < catalog.size(); i++) {
+			nameKeys[i] = normalize(catalog.get(i).getName());
+			titleKeys[i] = normalize(catalog.get(i).getTitle());
+		}
+		namePositions = sortedOrder(nameKeys);
+		titlePositions = sortedOrder(titleKeys);
+		names = new String[nameKeys.length];
+		titles = new String[titleKeys.length];
+		for (int i = 0; i < names.length; i++) {
+			names[i] = nameKeys[namePositions[i]];
+			titles[i] = titleKeys[titlePositions[i]];
+		}
+	}
+
+	/**
+	 * Returns up to limit Courses whose name or title starts with the given prefix,
+	 * ignoring case. Name matches come first in name order, then title matches in
+	 * title order, and each Course is returned once.
+	 * 
+	 * @param prefix start of the name or title
+	 * @param limit  largest number of positions to return
+	 * @return catalog positions of the matches
+	 */
+	int[] search(String prefix, int limit) {
+		String key = normalize(prefix);
+		CatalogIndexes.Postings result = new CatalogIndexes.Postings();
+		int count = collect(names, namePositions, key, limit, null, result);
+		if (count < limit) {
+			int[] nameMatches = result.toSortedSet();
+			collect(titles, titlePositions, key, limit - count, nameMatches, result);
+		}
+		return result.toArray();
+	}
+
+	/**
+	 * Adds the positions of the keys starting with the prefix to the result.
+	 * 
+	 * @param keys      sorted keys
+	 * @param positions catalog position of each key
+	 * @param prefix    lower case prefix
+	 * @param limit     largest number of positions to add
+	 * @param skip      sorted positions already in the result, or null
+	 * @param result    list the positions are added to
+	 * @return number of positions added
+	 */
+	private static int collect(String[] keys, int[] positions, String prefix, int limit, int[] skip,
+			CatalogIndexes.Postings result) {
+		int count = 0;
+		for (int i = lowerBound(keys, prefix); i < keys.length && count < limit && keys[i].startsWith(prefix); i++) {
+			if (skip == null || Arrays.binarySearch(skip, positions[i]) < 0) {
+				result.add(positions[i]);
+				count++;
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Returns the index of the first key not less than the given one.
+	 * 
+	 * @param keys sorted keys
+	 * @param key  key to search for
+	 * @return index of the first key at or after key
+	 */
+	private static int lowerBound(String[] keys, String key) {
+		int lo = 0;
+		int hi = keys.length;
+		while (lo < hi) {
+			int mid = (lo + hi) >>> 1;
+			if (keys[mid].compareTo(key) < 0) {
+				lo = mid + 1;
+			} else {
+				hi = mid;
+			}
+		}
+		return lo;
+	}
+
+	/**
+	 * Returns the positions of the keys in sorted key order, with equal keys in
+	 * catalog order.
+	 * 
+	 * @param keys keys by catalog position
+	 * @return catalog positions in key order
+	 */
+	private static int[] sortedOrder(String[] keys) {
+		Integer[] order = new Integer[keys.length];
+		for (int i = 0; i < order.length; i++) {
+			order[i] = i;
+		}
+		// a stable sort keeps equal keys in catalog order
+		Arrays.sort(order, (a, b) -> keys[a].compareTo(keys[b]));
+		int[] positions = new int[order.length];
+		for (int i = 0; i < order.length; i++) {
+			positions[i] = order[i];
+		}
+		return positions;
+	}
+
+	/**
+	 * Returns the form of a name, title, or prefix used for matching.
+	 * 
+	 * @param text text to normalize
+	 * @return the text in lower case
+	 */
+	static String normalize(String text) {
+		return text.toLowerCase(Locale.ROOT);
+	}
+}
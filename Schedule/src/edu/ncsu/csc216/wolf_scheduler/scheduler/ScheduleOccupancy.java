@@ -0,0 +1,152 @@
+/**
+ *
+ */
+package edu.ncsu.csc216.wolf_scheduler.scheduler;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import edu.ncsu.csc216.wolf_scheduler.course.Activity;
+
+/**
+ * Minute of the week occupancy bitmap of a schedule. Every minute of the seven
+ * meeting days has one bit that is set while a scheduled Activity meets in that
+ * minute, end minute included, and the Activity meeting there is kept as the
+ * owner of the minute. Checking a candidate against the whole schedule only
+ * ANDs the words under its meeting times, no matter how many activities are
+ * scheduled.
+ *
+ * A time whose end minutes come before its start minutes in the same hour is
+ * allowed but cannot be drawn as a range of minutes, so while the candidate or
+ * any scheduled Activity has such a time the schedule is checked one Activity
+ * at a time instead.
+ *
+ * @author Jay Shah (jsshah)
+ */
+class ScheduleOccupancy {
+
+	/** Number of minutes in a day */
+	private static final int MINUTES_PER_DAY = 24 * 60;
+	/** Number of days with a bit in the meeting day mask */
+	private static final int DAYS = Activity.MEETING_DAY_LETTERS.length();
+
+	/** one bit per minute of the week, set while a scheduled Activity meets then */
+	private final long[] words = new long[(DAYS * MINUTES_PER_DAY + Long.SIZE - 1) / Long.SIZE];
+	/** the scheduled Activity meeting in each minute of the week */
+	private final Activity[] owners = new Activity[DAYS * MINUTES_PER_DAY];
+	/** number of scheduled activities with a time that cannot be drawn as minutes */
+	private int inverted;
+
+	/**
+	 * Marks the meeting times of a newly scheduled Activity. A minute already
+	 * owned by another Activity keeps its owner.
+	 *
+	 * @param activity Activity added to the schedule
+	 */
+	void add(Activity activity) {
+		int mask = activity.getMeetingDayMask();
+		if (mask == 0) {
+			return;
+		}
+		int start = minuteOfDay(activity.getStartTime());
+		int end = minuteOfDay(activity.getEndTime());
+		if (start > end) {
+			inverted++;
+			return;
+		}
+		for (int day = 0; day < DAYS; day++) {
+			if ((mask & 1 << day) != 0) {
+				int from = day * MINUTES_PER_DAY + start;
+				int to = day * MINUTES_PER_DAY + end;
+				for (int minute = from; minute <= to; minute++) {
+					if (owners[minute] == null) {
+						owners[minute] = activity;
+					}
+				}
+				// the first and last words may only be partly covered
+				int first = from / Long.SIZE;
+				int last = to / Long.SIZE;
+				for (int w = first; w <= last; w++) {
+					words[w] |= rangeMask(w, from, to);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Clears the bitmap and marks the meeting times of every Activity in the given
+	 * schedule, after an Activity was removed or the schedule was replaced.
+	 *
+	 * @param schedule the scheduled activities
+	 */
+	void rebuild(ArrayList<Activity> schedule) {
+		Arrays.fill(words, 0L);
+		Arrays.fill(owners, null);
+		inverted = 0;
+		for (int i = 0; i < schedule.size(); i++) {
+			add(schedule.get(i));
+		}
+	}
+
+	/**
+	 * Returns a scheduled Activity that conflicts with the given one. When several
+	 * do, the owner of the earliest blocked minute of the week is returned, unless
+	 * the schedule has to be checked one Activity at a time, in which case the
+	 * first conflicting Activity in schedule order is returned.
+	 *
+	 * @param candidate Activity to check
+	 * @param schedule  the scheduled activities the bitmap was built from
+	 * @return the Activity blocking the candidate, or null if nothing does
+	 */
+	Activity blocking(Activity candidate, ArrayList<Activity> schedule) {
+		int mask = candidate.getMeetingDayMask();
+		if (mask == 0) {
+			return null;
+		}
+		int start = minuteOfDay(candidate.getStartTime());
+		int end = minuteOfDay(candidate.getEndTime());
+		if (start > end || inverted > 0) {
+			return candidate.findConflict(schedule);
+		}
+		for (int day = 0; day < DAYS; day++) {
+			if ((mask & 1 << day) != 0) {
+				int from = day * MINUTES_PER_DAY + start;
+				int to = day * MINUTES_PER_DAY + end;
+				int first = from / Long.SIZE;
+				int last = to / Long.SIZE;
+				for (int w = first; w <= last; w++) {
+					long hits = words[w] & rangeMask(w, from, to);
+					if (hits != 0) {
+						return owners[w * Long.SIZE + Long.numberOfTrailingZeros(hits)];
+					}
+				}
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Returns the bits of the given word that fall between two minutes of the week.
+	 *
+	 * @param word index of the word
+	 * @param from first minute, inclusive
+	 * @param to   last minute, inclusive
+	 * @return mask of the minutes of the range in the word
+	 */
+	private static long rangeMask(int word, int from, int to) {
+		int low = Math.max(from - word * Long.SIZE, 0);
+		int high = Math.min(to - word * Long.SIZE, Long.SIZE - 1);
+		// bits low through high, shifting by 64 is a no-op so build it from the top
+		return (-1L >>> (Long.SIZE - 1 - high)) & (-1L << low);
+	}
+
+	/**
+	 * Converts a military time to minutes since midnight.
+	 *
+	 * @param time military time, hhmm
+	 * @return minutes since midnight
+	 */
+	private static int minuteOfDay(int time) {
+		return time / 100 * 60 + time % 100;
+	}
+}
@@ -0,0 +1,157 @@
+/**
+ * 
+ */
+package edu.ncsu.csc216.wolf_scheduler.scheduler;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import edu.ncsu.csc216.wolf_scheduler.course.Course;
+import edu.ncsu.csc216.wolf_scheduler.io.CatalogLoadReport;
+
+/**
+ * A catalog split into one file per department in a directory, such as CSC.txt
+ * and MA.txt. A department's file is only read the first time a Course of that
+ * subject is looked up, and only a bounded number of departments are kept in
+ * memory at once; the least recently used one is dropped to make room for a new
+ * one.
+ * 
+ * @author Jay Shah (jsshah)
+ */
+class ShardedCatalog {
+
+	/** catalog file of every subject, keyed by upper case subject */
+	private final HashMap<String, File> shardFiles = new HashMap<String, File>();
+	/** largest number of departments kept in memory */
+	private final int maxResidentShards;
+	/** Courses of the departments in memory, least recently used first */
+	private final LinkedHashMap<String, ArrayList<Course>> resident = new LinkedHashMap<String, ArrayList<Course>>(16,
+			0.75f, true);
+
+	/**
+	 * Finds the department catalog files in the given directory. The subject of a
+	 * file is its name up to the first dot.
+	 * 
+	 * @param directory         directory holding one catalog file per department
+	 * @param maxResidentShards largest number of departments kept in memory
+	 * @throws IllegalArgumentException if the directory cannot be read or
+	 *                                  maxResidentShards is less than one
+	 */
+	ShardedCatalog(String directory, int maxResidentShards) {
+		File[] files = new File(directory).listFiles();
+		if (files == null) {
+			throw new IllegalArgumentException("Cannot find file.");
+		}
+		if (maxResidentShards < 1) {
+			throw new IllegalArgumentException("Invalid shard count.");
+		}
+		this.maxResidentShards = maxResidentShards;
+		for (int i = 0; i < files.length; i++) {
+			String fileName = files[i].getName();
+			int dot = fileName.indexOf('.');
+			if (files[i].isFile() && dot != 0) {
+				shardFiles.put(key(dot < 0 ? fileName : fileName.substring(0, dot)), files[i]);
+			}
+		}
+	}
+
+	/**
+	 * Makes sure the department of the given subject is in memory, reading its file
+	 * and dropping the least recently used department if needed.
+	 * 
+	 * @param subject subject of the department, like "CSC"
+	 * @param report  report to count the lines of a newly read file in
+	 * @return true if the departments in memory changed
+	 * @throws IllegalArgumentException if the department's file cannot be read
+	 */
+	boolean ensureLoaded(String subject, CatalogLoadReport report) {
+		String key = key(subject);
+		File file = shardFiles.get(key);
+		if (file == null || resident.get(key) != null) {
+			return false;
+		}
+		resident.put(key, WolfScheduler.loadCatalog(file.getPath(), report));
+		Iterator<String> leastRecent = resident.keySet().iterator();
+		while (resident.size() > maxResidentShards) {
+			leastRecent.next();
+			leastRecent.remove();
+		}
+		return true;
+	}
+
+	/**
+	 * Returns the Courses of every department in memory, departments in subject
+	 * order and each in file order. The order only depends on which departments
+	 * are in memory, not on how recently they were used.
+	 * 
+	 * @return the Courses in memory
+	 */
+	ArrayList<Course> getResidentCourses() {
+		TreeMap<String, ArrayList<Course>> bySubject = new TreeMap<String, ArrayList<Course>>(resident);
+		ArrayList<Course> courses = new ArrayList<Course>();
+		for (ArrayList<Course> shard : bySubject.values()) {
+			courses.addAll(shard);
+		}
+		return courses;
+	}
+
+	/**
+	 * Returns the subjects of the departments whose Course names could start with
+	 * the given text, ignoring case. Once the text reaches past the subject only
+	 * that subject is left.
+	 * 
+	 * @param prefix start of a Course name
+	 * @return the subjects in order
+	 */
+	ArrayList<String> getSubjectsMatching(String prefix) {
+		String text = key(prefix);
+		int space = text.indexOf(' ');
+		ArrayList<String> subjects = new ArrayList<String>();
+		if (space >= 0) {
+			if (shardFiles.containsKey(text.substring(0, space))) {
+				subjects.add(text.substring(0, space));
+			}
+			return subjects;
+		}
+		for (String subject : new TreeSet<String>(shardFiles.keySet())) {
+			if (subject.startsWith(text)) {
+				subjects.add(subject);
+			}
+		}
+		return subjects;
+	}
+
+	/**
+	 * Returns the largest number of departments kept in memory.
+	 * 
+	 * @return the largest number of resident departments
+	 */
+	int getMaxResidentShards() {
+		return maxResidentShards;
+	}
+
+	/**
+	 * Returns the subjects of every department with a catalog file.
+	 * 
+	 * @return the subjects in order
+	 */
+	ArrayList<String> getSubjects() {
+		return new ArrayList<String>(new TreeSet<String>(shardFiles.keySet()));
+	}
+
+	/**
+	 * Returns the key a subject is stored under, ignoring case.
+	 * 
+	 * @param subject subject of a department
+	 * @return the upper case subject
+	 */
+	private static String key(String subject) {
+		return subject.toUpperCase(Locale.ROOT);
+	}
+}
@@ -0,0 +1,153 @@
+/**
+ * 
+ */
+package edu.ncsu.csc216.wolf_scheduler.scheduler;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+
+import edu.ncsu.csc216.wolf_scheduler.course.Course;
+
+/**
+ * Inverted index over the words of the catalog Course titles. Every word maps to
+ * the sorted catalog positions of the Courses with that word in their title,
+ * along with how often it appears there, so a keyword search only looks at the
+ * Courses that contain its rarest word.
+ * 
+ * @author Jay Shah (jsshah)
+ */
+class TitleIndex {
+
+	/** postings of every word */
+	private final HashMap<String, Term> terms = new HashMap<String, Term>();
+	/** number of words in the title of every Course by position */
+	private final int[] titleLengths;
+
+	/**
+	 * Builds the index over the given catalog.
+	 * 
+	 * @param catalog catalog to index
+	 */
+	TitleIndex(ArrayList<Course> catalog) {
+		titleLengths = new int[catalog.size()];
+		HashMap<String, CatalogIndexes.Postings[]> lists = new HashMap<String, CatalogIndexes.Postings[]>();
+		for (int i = 0; i < catalog.size(); i++) {
+			String[] words = tokenize(catalog.get(i).getTitle());
+			titleLengths[i] = words.length;
+
+			// sorted words are counted by runs of the same word
+			Arrays.sort(words);
+			for (int j = 0; j < words.length;) {
+				int k = j;
+				while (k < words.length && words[k].equals(words[j])) {
+					k++;
+				}
+				CatalogIndexes.Postings[] list = lists.computeIfAbsent(words[j],
+						w -> new CatalogIndexes.Postings[] { new CatalogIndexes.Postings(),
+								new CatalogIndexes.Postings() });
+				list[0].add(i);
+				list[1].add(k - j);
+				j = k;
+			}
+		}
+		lists.forEach((word, list) -> terms.put(word, new Term(list[0].toArray(), list[1].toArray())));
+	}
+
+	/**
+	 * Returns the positions of up to limit Courses whose title contains every word
+	 * of the query, best match first. A Course ranks higher the more often its
+	 * title uses the query words, weighted toward rare words, and the shorter its
+	 * title is. Courses with the same rank stay in catalog order.
+	 * 
+	 * @param query words to look for
+	 * @param limit largest number of positions to return
+	 * @return catalog positions of the matches
+	 */
+	int[] search(String query, int limit) {
+		String[] words = tokenize(query);
+		if (words.length == 0) {
+			return CatalogIndexes.NONE;
+		}
+		Term[] queryTerms = new Term[words.length];
+		for (int i = 0; i < words.length; i++) {
+			queryTerms[i] = terms.get(words[i]);
+			if (queryTerms[i] == null) {
+				return CatalogIndexes.NONE;
+			}
+		}
+
+		// intersect starting from the rarest word so the candidates only shrink
+		Arrays.sort(queryTerms, (a, b) -> Integer.compare(a.positions.length, b.positions.length));
+		int[] matches = queryTerms[0].positions;
+		for (int i = 1; i < queryTerms.length && matches.length > 0; i++) {
+			matches = CatalogIndexes.intersect(matches, queryTerms[i].positions);
+		}
+
+		double[] scores = new double[matches.length];
+		for (int t = 0; t < queryTerms.length; t++) {
+			Term term = queryTerms[t];
+			double idf = Math.log(1.0 + (double) titleLengths.length / term.positions.length);
+			for (int i = 0; i < matches.length; i++) {
+				int at = Arrays.binarySearch(term.positions, matches[i]);
+				scores[i] += idf * term.counts[at];
+			}
+		}
+		Integer[] order = new Integer[matches.length];
+		for (int i = 0; i < order.length; i++) {
+			order[i] = i;
+			scores[i] /= Math.sqrt(titleLengths[matches[i]]);
+		}
+		// a stable sort keeps equal scores in catalog order
+		Arrays.sort(order, (a, b) -> Double.compare(scores[b], scores[a]));
+		int[] ranked = new int[Math.min(limit, order.length)];
+		for (int i = 0; i < ranked.length; i++) {
+			ranked[i] = matches[order[i]];
+		}
+		return ranked;
+	}
+
+	/**
+	 * Splits text into lower case words of letters and digits.
+	 * 
+	 * @param text text to split
+	 * @return the words in the order they appear
+	 */
+	static String[] tokenize(String text) {
+		ArrayList<String> words = new ArrayList<String>();
+		int start = -1;
+		for (int i = 0; i <= text.length(); i++) {
+			boolean wordChar = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+			if (wordChar && start < 0) {
+				start = i;
+			} else if (!wordChar && start >= 0) {
+				words.add(PrefixIndex.normalize(text.substring(start, i)));
+				start = -1;
+			}
+		}
+		return words.toArray(new String[words.size()]);
+	}
+
+	/**
+	 * Postings of a single word.
+	 * 
+	 * @author Jay Shah (jsshah)
+	 */
+	private static class Term {
+		/** sorted catalog positions of the Courses with the word in their title */
+		final int[] positions;
+		/** number of times the word appears in each of those titles */
+		final int[] counts;
+
+		/**
+		 * Creates the postings of a word.
+		 * 
+		 * @param positions sorted catalog positions
+		 * @param counts    number of times the word appears at each position
+		 */
+		Term(int[] positions, int[] counts) {
+			this.positions = positions;
+			this.counts = counts;
+		}
+	}
+}
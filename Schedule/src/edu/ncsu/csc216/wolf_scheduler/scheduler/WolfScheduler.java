@@ -4,14 +4,21 @@
 package edu.ncsu.csc216.wolf_scheduler.scheduler;
 
 import java.util.ArrayList;
+import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
 
 import edu.ncsu.csc216.wolf_scheduler.course.Activity;
 import edu.ncsu.csc216.wolf_scheduler.course.ConflictException;
 import edu.ncsu.csc216.wolf_scheduler.course.Course;
 import edu.ncsu.csc216.wolf_scheduler.course.Event;
+import edu.ncsu.csc216.wolf_scheduler.io.ActivityImportReport;
 import edu.ncsu.csc216.wolf_scheduler.io.ActivityRecordIO;
+import edu.ncsu.csc216.wolf_scheduler.io.CatalogLoadReport;
+import edu.ncsu.csc216.wolf_scheduler.io.CatalogSnapshotIO;
 import edu.ncsu.csc216.wolf_scheduler.io.CourseRecordIO;
 
 /**
@@ -34,18 +41,88 @@ public class WolfScheduler {
 	/** title for schedule */
 	String title;
 
+	/** counts of the accepted and rejected lines of the catalog file */
+	CatalogLoadReport loadReport = new CatalogLoadReport();
+
+	/** catalog Courses by name and section, rebuilt whenever the catalog changes */
+	private HashMap<String, Course> catalogIndex = new HashMap<String, Course>();
+
+	/** secondary indexes over the catalog, built on first use after each change */
+	private CatalogIndexes catalogIndexes;
+
+	/** display rows of the catalog, built on first use after each change */
+	private String[][] catalogDisplay;
+
+	/** catalog positions in the order of each CatalogSortKey, built on first use after each change */
+	private int[][] catalogOrders = new int[CatalogSortKey.values().length][];
+
+	/** short display rows of the schedule, built on first use after each change */
+	private String[][] scheduleDisplay;
+
+	/** long display rows of the schedule, built on first use after each change */
+	private String[][] fullScheduleDisplay;
+
+	/** minute of the week occupancy of the schedule, kept up to date on every change */
+	private ScheduleOccupancy occupancy = new ScheduleOccupancy();
+
+	/** catalog Courses the schedule does not block, built on first use after each change */
+	private AddableFilter addableFilter;
+
+	/** column store of the catalog, built on first use after each change */
+	private CatalogColumns catalogColumns;
+
+	/** department catalogs read on demand, null unless loaded from a directory */
+	private ShardedCatalog shardedCatalog;
+
+	/** catalog file the catalog was loaded from */
+	private String catalogFileName;
+
+	/** watcher for changes to the catalog file, null when not watching */
+	private CatalogWatcher catalogWatcher;
+
 	/** Schedule name */
 	public static final String DEFAULT_SCHEDULE_NAME = "My Schedule";
 
+	/** Number of departments kept in memory when the catalog is a directory */
+	public static final int DEFAULT_RESIDENT_SHARDS = 8;
+
+	/** Catalog files at least this many bytes are parsed on all available cores */
+	private static final long PARALLEL_LOAD_THRESHOLD = 8 * 1024 * 1024;
+
 	/**
 	 * Creates WolfSchedule with a user's given file name and contains course
 	 * objects. Attempts to populate Course catalog with courses that are read from
-	 * an input file.
+	 * an input file. If the file is a directory of department catalogs, each
+	 * department is read on its first lookup instead, as described for
+	 * WolfScheduler(String, int), keeping DEFAULT_RESIDENT_SHARDS of them.
 	 * 
 	 * @param validTestFile file with Course objects
 	 * @throws IllegalArgumentException when file is not present or found
 	 */
 	public WolfScheduler(String validTestFile) {
+		this(validTestFile, DEFAULT_RESIDENT_SHARDS);
+	}
+
+	/**
+	 * Creates WolfSchedule with a user's given file name and contains course
+	 * objects. A regular file is read as the whole catalog right away. A directory
+	 * is read as one catalog file per department, named after the subject like
+	 * CSC.txt, and a department is only read the first time one of its Courses is
+	 * looked up. At most maxResidentShards departments are kept in the catalog,
+	 * dropping the least recently used one when another is read.
+	 * 
+	 * For a directory, the catalog is the departments read so far. Looking up a
+	 * Course, finding Courses with a subject query, and searching for Course names
+	 * read the departments involved first, up to maxResidentShards of them. Every
+	 * other view of the catalog, such as getCatalogSize(), getCourseCatalog(),
+	 * getCatalogColumns(), searchTitles() and getAddableCourses(), only sees the
+	 * departments read so far, and is empty until the first one is read.
+	 * 
+	 * @param validTestFile     file with Course objects, or directory of them
+	 * @param maxResidentShards largest number of departments kept in the catalog
+	 * @throws IllegalArgumentException when file is not present or found
+	 */
+	public WolfScheduler(String validTestFile, int maxResidentShards) {
 
 		// Create course catalog
 //		ArrayList<Course> catalog = new ArrayList<Course>();
@@ -58,17 +135,534 @@ public class WolfScheduler {
 		// set title to My Schedule as a default
 		this.title = DEFAULT_SCHEDULE_NAME;
 
+		this.catalogFileName = validTestFile;
+		if (new File(validTestFile).isDirectory()) {
+			// departments are read as they are looked up
+			this.shardedCatalog = new ShardedCatalog(validTestFile, maxResidentShards);
+		} else {
+			this.catalog = loadCatalog(validTestFile, this.loadReport);
+		}
+		catalogChanged();
+	}
+
+	/**
+	 * Reads a catalog from a catalog snapshot or a text catalog file. Text catalogs
+	 * big enough to be worth it are parsed on all available cores.
+	 * 
+	 * @param fileName catalog file to read
+	 * @param report   report to count accepted and rejected lines in
+	 * @return the Courses in the catalog
+	 * @throws IllegalArgumentException when file is not present or found
+	 */
+	static ArrayList<Course> loadCatalog(String fileName, CatalogLoadReport report) {
+
+		// a catalog snapshot was already validated when it was written, load it as is
+		if (CatalogSnapshotIO.isCatalogSnapshot(fileName)) {
+			try {
+				return CatalogSnapshotIO.readCatalogSnapshot(fileName);
+			} catch (IOException e) {
+				// not a usable snapshot after all, read it as a text catalog below
+			}
+		}
+
+		// big catalogs are parsed in parallel, small ones are not worth the threads
+		int parallelism = 1;
+		if (new File(fileName).length() >= PARALLEL_LOAD_THRESHOLD) {
+			parallelism = Runtime.getRuntime().availableProcessors();
+		}
+
 		// set up a try catch block in case file is not found
 		try {
-			this.catalog = CourseRecordIO.readCourseRecords(validTestFile);
+			return CourseRecordIO.readCourseRecords(fileName, parallelism, report);
 		} catch (FileNotFoundException e) {
 			throw new IllegalArgumentException("Cannot find file.");
 		}
 	}
 
+	/**
+	 * Starts watching the catalog file for changes. While the watch is running the
+	 * file is parsed again in the background whenever it changes, and the changes
+	 * are applied to the catalog the next time it is used.
+	 * 
+	 * @throws IllegalArgumentException if the catalog file cannot be watched or
+	 *                                  the catalog is a directory of departments
+	 */
+	public void startCatalogWatch() {
+		if (this.catalogWatcher != null) {
+			return;
+		}
+		if (this.shardedCatalog != null) {
+			throw new IllegalArgumentException("Cannot watch file.");
+		}
+		CatalogWatcher watcher = new CatalogWatcher(this.catalogFileName);
+		try {
+			watcher.start();
+		} catch (IOException e) {
+			throw new IllegalArgumentException("Cannot watch file.");
+		}
+		this.catalogWatcher = watcher;
+	}
+
+	/**
+	 * Stops watching the catalog file. Changes that were not applied yet are
+	 * dropped.
+	 */
+	public void stopCatalogWatch() {
+		if (this.catalogWatcher != null) {
+			this.catalogWatcher.stop();
+			this.catalogWatcher = null;
+		}
+	}
+
+	/**
+	 * Applies the newest version of the catalog file if it changed since it was
+	 * last loaded. Courses are matched by name and section: changed Courses are
+	 * replaced where they are in the catalog, removed Courses are taken out, and
+	 * added Courses go at the end. A scheduled Course that changed is replaced by
+	 * its new version unless the new version conflicts with the rest of the
+	 * schedule, and a scheduled Course that was removed stays in the schedule.
+	 * This is done automatically when the catalog is used while the watch is
+	 * running.
+	 * 
+	 * @return the changes applied, empty if the file has not changed
+	 */
+	public CatalogDiff applyCatalogChanges() {
+		CatalogDiff diff = new CatalogDiff();
+		CatalogWatcher.Update update = this.catalogWatcher == null ? null : this.catalogWatcher.takeUpdate();
+		if (update == null) {
+			return diff;
+		}
+
+		// index the new catalog by name and section
+		HashMap<String, Course> updated = new HashMap<String, Course>();
+		for (int i = 0; i < update.courses.size(); i++) {
+			Course c = update.courses.get(i);
+			updated.put(catalogKey(c), c);
+		}
+
+		// replace changed Courses in place and drop removed ones
+		HashSet<String> kept = new HashSet<String>();
+		ArrayList<Course> newCatalog = new ArrayList<Course>(update.courses.size());
+		for (int i = 0; i < this.catalog.size(); i++) {
+			Course c = this.catalog.get(i);
+			String key = catalogKey(c);
+			Course replacement = updated.get(key);
+			if (replacement == null) {
+				diff.getRemoved().add(c);
+			} else if (kept.add(key)) {
+				if (!replacement.equals(c)) {
+					diff.getChanged().add(replacement);
+				}
+				newCatalog.add(replacement);
+			}
+		}
+		for (int i = 0; i < update.courses.size(); i++) {
+			Course c = update.courses.get(i);
+			if (kept.add(catalogKey(c))) {
+				diff.getAdded().add(c);
+				newCatalog.add(c);
+			}
+		}
+		this.catalog = newCatalog;
+		this.loadReport = update.report;
+		catalogChanged();
+
+		// move scheduled Courses to their new versions when they still fit
+		boolean moved = false;
+		for (int i = 0; i < this.schedule.size(); i++) {
+			if (this.schedule.get(i) instanceof Course) {
+				Course replacement = updated.get(catalogKey((Course) this.schedule.get(i)));
+				if (replacement != null && !hasConflict(replacement, i)) {
+					this.schedule.set(i, replacement);
+					moved = true;
+				}
+			}
+		}
+		if (moved) {
+			scheduleChanged();
+		}
+		return diff;
+	}
+
+	/**
+	 * Returns the subjects of the departments that can be read when the catalog is
+	 * a directory of department catalogs.
+	 * 
+	 * @return the subjects in order, empty if the catalog is a single file
+	 */
+	public ArrayList<String> getCatalogSubjects() {
+		if (this.shardedCatalog == null) {
+			return new ArrayList<String>();
+		}
+		return this.shardedCatalog.getSubjects();
+	}
+
+	/**
+	 * Makes sure the department of the given Course name is in the catalog when the
+	 * catalog is a directory of department catalogs.
+	 * 
+	 * @param name Course name, or the start of one ending past the subject
+	 */
+	private void loadDepartment(String name) {
+		if (this.shardedCatalog != null && name != null) {
+			ArrayList<String> subjects = new ArrayList<String>();
+			subjects.add(CatalogIndexes.subjectOf(name));
+			loadDepartments(subjects);
+		}
+	}
+
+	/**
+	 * Makes sure the departments of the given subjects are in the catalog when the
+	 * catalog is a directory of department catalogs. Only as many departments as
+	 * are kept in memory are read, the first ones in the list. A department whose
+	 * file cannot be read is left out, so its Courses are not found.
+	 * 
+	 * @param subjects subjects of the departments to read
+	 */
+	private void loadDepartments(ArrayList<String> subjects) {
+		if (this.shardedCatalog == null) {
+			return;
+		}
+		boolean changed = false;
+		int count = Math.min(subjects.size(), this.shardedCatalog.getMaxResidentShards());
+		for (int i = 0; i < count; i++) {
+			try {
+				changed |= this.shardedCatalog.ensureLoaded(subjects.get(i), this.loadReport);
+			} catch (IllegalArgumentException e) {
+				// the department's file is gone, it has no Courses to find
+			}
+		}
+		if (changed) {
+			this.catalog = this.shardedCatalog.getResidentCourses();
+			catalogChanged();
+		}
+	}
+
+	/**
+	 * Rebuilds everything derived from the catalog. Must be called after every
+	 * change to the catalog.
+	 */
+	private void catalogChanged() {
+		HashMap<String, Course> index = new HashMap<String, Course>(this.catalog.size() * 2);
+		for (int i = 0; i < this.catalog.size(); i++) {
+			Course c = this.catalog.get(i);
+			// the first of two equal keys wins, just like the old linear search
+			index.putIfAbsent(catalogKey(c), c);
+		}
+		this.catalogIndex = index;
+		this.catalogIndexes = null;
+		this.catalogColumns = null;
+		dropAddableFilter();
+		this.catalogDisplay = null;
+		this.catalogOrders = new int[CatalogSortKey.values().length][];
+	}
+
+	/**
+	 * Rebuilds the occupancy of the schedule and drops its display rows. Must be
+	 * called after every change to the schedule other than adding an Activity.
+	 */
+	private void scheduleChanged() {
+		this.occupancy.rebuild(this.schedule);
+		dropAddableFilter();
+		this.scheduleDisplay = null;
+		this.fullScheduleDisplay = null;
+	}
+
+	/**
+	 * Closes and drops the addable filter so the next call to getAddableCourses()
+	 * counts the whole catalog again.
+	 */
+	private void dropAddableFilter() {
+		if (this.addableFilter != null) {
+			this.addableFilter.close();
+			this.addableFilter = null;
+		}
+	}
+
+	/**
+	 * Marks a newly added Activity in the occupancy of the schedule and drops the
+	 * display rows of the schedule. Must be called after every add.
+	 * 
+	 * @param activity Activity added to the schedule
+	 */
+	private void activityAdded(Activity activity) {
+		this.occupancy.add(activity);
+		if (this.addableFilter != null) {
+			this.addableFilter.add(activity);
+		}
+		this.scheduleDisplay = null;
+		this.fullScheduleDisplay = null;
+	}
+
+	/**
+	 * Rebuilds the occupancy of the schedule, takes the removed Activity out of the
+	 * addable Courses and drops the display rows of the schedule. Must be called
+	 * after every remove.
+	 * 
+	 * @param activity Activity removed from the schedule
+	 */
+	private void activityRemoved(Activity activity) {
+		this.occupancy.rebuild(this.schedule);
+		if (this.addableFilter != null) {
+			this.addableFilter.remove(activity);
+		}
+		this.scheduleDisplay = null;
+		this.fullScheduleDisplay = null;
+	}
+
+	/**
+	 * Returns the catalog Courses that could be added to the schedule right now,
+	 * those that are not a duplicate of a scheduled Course and do not conflict
+	 * with anything in the schedule. The first call after the catalog or schedule
+	 * is replaced checks the whole catalog on all available cores; after that,
+	 * adding and removing activities only updates the Courses they block.
+	 * 
+	 * @return the addable Courses in catalog order
+	 */
+	public ArrayList<Course> getAddableCourses() {
+		int[] positions = getAddableFilter().addable();
+		ArrayList<Course> courses = new ArrayList<Course>(positions.length);
+		for (int i = 0; i < positions.length; i++) {
+			courses.add(this.catalog.get(positions[i]));
+		}
+		return courses;
+	}
+
+	/**
+	 * Returns the addable filter of the current catalog and schedule, counting the
+	 * whole catalog first if there is none yet.
+	 * 
+	 * @return the addable filter
+	 */
+	private AddableFilter getAddableFilter() {
+		if (this.addableFilter == null) {
+			this.addableFilter = new AddableFilter(getCatalogColumns(), this.schedule,
+					Runtime.getRuntime().availableProcessors());
+		}
+		return this.addableFilter;
+	}
+
+	/**
+	 * Checks if the given Course could be added to the schedule right now, by the
+	 * same rules as getAddableCourses().
+	 * 
+	 * @param course Course to check
+	 * @return true if the Course is not a duplicate of a scheduled Course and does
+	 *         not conflict with anything in the schedule
+	 */
+	public boolean isAddable(Course course) {
+		for (int i = 0; i < this.schedule.size(); i++) {
+			if (this.schedule.get(i).isDuplicate(course)) {
+				return false;
+			}
+		}
+		return getBlockingActivity(course) == null;
+	}
+
+	/**
+	 * Returns a scheduled Activity that keeps the given Activity from being added
+	 * because their meeting times conflict. The check looks at the occupancy of
+	 * the whole schedule at once, so it takes the same time however many
+	 * activities are scheduled.
+	 * 
+	 * @param activity Activity to check against the schedule
+	 * @return a conflicting scheduled Activity, or null if there is none
+	 */
+	public Activity getBlockingActivity(Activity activity) {
+		return this.occupancy.blocking(activity, this.schedule);
+	}
+
+	/**
+	 * Checks many activities against the schedule at once, for what-if probing.
+	 * Each activity is checked as getBlockingActivity() does, and nothing is
+	 * thrown for the ones that conflict.
+	 * 
+	 * @param activities activities to check against the schedule
+	 * @return the blocking scheduled Activity of each activity in the same order,
+	 *         null for the ones that could be added without a conflict
+	 */
+	public Activity[] getBlockingActivities(ArrayList<? extends Activity> activities) {
+		Activity[] blocking = new Activity[activities.size()];
+		for (int i = 0; i < blocking.length; i++) {
+			blocking[i] = this.occupancy.blocking(activities.get(i), this.schedule);
+		}
+		return blocking;
+	}
+
+	/**
+	 * Returns the catalog as a column store, for scans over the whole catalog such
+	 * as analytics or bulk conflict checks. Ordinals in the store are positions in
+	 * the catalog. The store is rebuilt the first time it is asked for after the
+	 * catalog changes.
+	 * 
+	 * @return the catalog column store
+	 */
+	public CatalogColumns getCatalogColumns() {
+		applyCatalogChanges();
+		if (this.catalogColumns == null) {
+			this.catalogColumns = new CatalogColumns(this.catalog);
+		}
+		return this.catalogColumns;
+	}
+
+	/**
+	 * Returns the secondary indexes over the current catalog, building them if the
+	 * catalog changed since they were last used.
+	 * 
+	 * @return the catalog indexes
+	 */
+	private CatalogIndexes getCatalogIndexes() {
+		applyCatalogChanges();
+		if (this.catalogIndexes == null) {
+			this.catalogIndexes = new CatalogIndexes(this.catalog);
+		}
+		return this.catalogIndexes;
+	}
+
+	/**
+	 * Finds the catalog Courses matching the given query, such as every CSC Course
+	 * meeting on Fridays. The query is answered from indexes on instructor,
+	 * subject, and meeting day instead of by looking at every Course. When the
+	 * catalog is a directory of department catalogs, the departments of the
+	 * subjects in the query are read first.
+	 * 
+	 * @param query query to answer
+	 * @return the matching Courses in catalog order
+	 * @throws IllegalArgumentException if query is null
+	 */
+	public ArrayList<Course> findCourses(CourseQuery query) {
+		if (query == null) {
+			throw new IllegalArgumentException("Invalid query.");
+		}
+		if (this.shardedCatalog != null) {
+			ArrayList<String> subjects = new ArrayList<String>();
+			query.addSubjects(subjects);
+			loadDepartments(subjects);
+		}
+		CatalogIndexes indexes = getCatalogIndexes();
+		return coursesAt(indexes, query.evaluate(indexes));
+	}
+
+	/**
+	 * Finds up to limit catalog Courses whose name or title starts with the given
+	 * text, ignoring case, for a search box that filters as the user types.
+	 * Courses matching by name come first. When the catalog is a directory of
+	 * department catalogs, the departments whose Course names could start with
+	 * the text are read first.
+	 * 
+	 * @param prefix text typed so far
+	 * @param limit  largest number of Courses to return
+	 * @return the matching Courses
+	 * @throws IllegalArgumentException if prefix is null or limit is negative
+	 */
+	public ArrayList<Course> searchCourses(String prefix, int limit) {
+		if (prefix == null || limit < 0) {
+			throw new IllegalArgumentException("Invalid search.");
+		}
+		// read the departments whose names the text could be the start of
+		if (this.shardedCatalog != null) {
+			loadDepartments(this.shardedCatalog.getSubjectsMatching(prefix));
+		}
+		CatalogIndexes indexes = getCatalogIndexes();
+		return coursesAt(indexes, indexes.prefix(prefix, limit));
+	}
+
+	/**
+	 * Finds up to limit catalog Courses that could be added to the schedule right
+	 * now, by the same rules as getAddableCourses(), and whose name or title
+	 * starts with the given text, ignoring case. The matches are filtered before
+	 * the limit is applied, so blocked Courses never use up the limit. Courses
+	 * matching by name come first.
+	 * 
+	 * @param prefix text typed so far
+	 * @param limit  largest number of Courses to return
+	 * @return the matching addable Courses
+	 * @throws IllegalArgumentException if prefix is null or limit is negative
+	 */
+	public ArrayList<Course> searchAddableCourses(String prefix, int limit) {
+		if (prefix == null || limit < 0) {
+			throw new IllegalArgumentException("Invalid search.");
+		}
+		if (this.shardedCatalog != null) {
+			loadDepartments(this.shardedCatalog.getSubjectsMatching(prefix));
+		}
+		CatalogIndexes indexes = getCatalogIndexes();
+		AddableFilter filter = getAddableFilter();
+		int[] matches = indexes.prefix(prefix, Integer.MAX_VALUE);
+		ArrayList<Course> courses = new ArrayList<Course>();
+		for (int i = 0; i < matches.length && courses.size() < limit; i++) {
+			if (filter.isAddable(matches[i])) {
+				courses.add(indexes.getCatalog().get(matches[i]));
+			}
+		}
+		return courses;
+	}
+
+	/**
+	 * Finds up to limit catalog Courses whose title contains every word of the
+	 * given keywords anywhere, ignoring case, such as "data structures". The best
+	 * matches come first: titles using rare keywords, using them more often, or
+	 * with fewer other words.
+	 * 
+	 * @param keywords words to look for in titles
+	 * @param limit    largest number of Courses to return
+	 * @return the matching Courses, best match first
+	 * @throws IllegalArgumentException if keywords is null or limit is negative
+	 */
+	public ArrayList<Course> searchTitles(String keywords, int limit) {
+		if (keywords == null || limit < 0) {
+			throw new IllegalArgumentException("Invalid search.");
+		}
+		CatalogIndexes indexes = getCatalogIndexes();
+		return coursesAt(indexes, indexes.keywords(keywords, limit));
+	}
+
+	/**
+	 * Returns the catalog Courses at the given positions.
+	 * 
+	 * @param indexes   indexes over the catalog the positions refer to
+	 * @param positions catalog positions
+	 * @return the Courses in the order of the positions
+	 */
+	private static ArrayList<Course> coursesAt(CatalogIndexes indexes, int[] positions) {
+		ArrayList<Course> courses = new ArrayList<Course>(positions.length);
+		for (int i = 0; i < positions.length; i++) {
+			courses.add(indexes.getCatalog().get(positions[i]));
+		}
+		return courses;
+	}
+
+	/**
+	 * Checks if the given Course conflicts with anything in the schedule other than
+	 * the entry at the given index.
+	 * 
+	 * @param course Course to check
+	 * @param skip   index of the schedule entry to leave out
+	 * @return true if there is a conflict
+	 */
+	private boolean hasConflict(Course course, int skip) {
+		for (int i = 0; i < this.schedule.size(); i++) {
+			if (i != skip && course.conflictsWith(this.schedule.get(i))) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Returns the key a Course is matched on between versions of the catalog.
+	 * 
+	 * @param course Course to get the key of
+	 * @return the name and section of the Course
+	 */
+	private static String catalogKey(Course course) {
+		return course.getName() + "," + course.getSection();
+	}
+
 	/**
 	 * Creates and returns 2D array of the schedule containing info about the course
-	 * name, section, and title.
+	 * name, section, and title. The array is kept until the schedule changes, so
+	 * it must not be modified.
 	 * 
 	 * @return 2D string array of the schedule
 	 */
@@ -77,6 +671,10 @@ public class WolfScheduler {
 		if (this.schedule.size() == 0) {
 			return new String[0][0];
 		}
+		// the schedule has not changed since the rows were last built
+		if (this.scheduleDisplay != null) {
+			return this.scheduleDisplay;
+		}
 		// updated instead use getShortDisplay array similar to get course catalog
 		// create array object
 //		String[][] courseSchedule = new String[schedule.size()][3];
@@ -88,6 +686,7 @@ public class WolfScheduler {
 			for (int i = 0; i < schedule.size(); i++) {
 				courseSchedule[i] = this.schedule.get(i).getShortDisplayArray();
 			}
+			this.scheduleDisplay = courseSchedule;
 			return courseSchedule;
 		}
 	}
@@ -95,7 +694,8 @@ public class WolfScheduler {
 	/**
 	 * Returns the wolf scheduler catalog in a 2D String array contains info such as
 	 * course name, section, and title. Code is commented well but essentially this
-	 * is performing the same tasks other methods with slight tweaks.
+	 * is performing the same tasks other methods with slight tweaks. The array is
+	 * kept until the catalog changes, so it must not be modified.
 	 * 
 	 * @return catalog catalog of courses in a 2D array
 	 */
@@ -109,6 +709,14 @@ public class WolfScheduler {
 		// then populate the array with
 		// the proper short display array by iterating through it with a for loop
 
+		// pick up a new version of the catalog file first
+		applyCatalogChanges();
+
+		// the catalog has not changed since the rows were last built
+		if (this.catalogDisplay != null) {
+			return this.catalogDisplay;
+		}
+
 		String[][] courseCatalog = new String[catalog.size()][4];
 		if (catalog.size() == 0) {
 			return courseCatalog;
@@ -122,14 +730,98 @@ public class WolfScheduler {
 			courseCatalog[i][2] = this.catalog.get(i).getTitle();
 			courseCatalog[i][3] = this.catalog.get(i).getMeetingString();
 		}
+		this.catalogDisplay = courseCatalog;
 		return courseCatalog;
 	}
 
+	/**
+	 * Returns the number of Courses in the catalog. When the catalog is a directory
+	 * of department catalogs, only the departments read so far are counted.
+	 * 
+	 * @return the catalog size
+	 */
+	public int getCatalogSize() {
+
+		// pick up a new version of the catalog file first
+		applyCatalogChanges();
+		return this.catalog.size();
+	}
+
+	/**
+	 * Returns one page of the catalog in catalog order, with the same columns as
+	 * getCourseCatalog(). Only the rows on the page are built, so a table showing
+	 * a large catalog can ask for just the rows on screen.
+	 * 
+	 * @param offset index of the first row of the page
+	 * @param limit  largest number of rows on the page
+	 * @return the rows of the page, fewer than limit at the end of the catalog
+	 * @throws IllegalArgumentException if offset or limit is negative
+	 */
+	public String[][] getCourseCatalog(int offset, int limit) {
+		return getCourseCatalog(offset, limit, CatalogSortKey.CATALOG);
+	}
+
+	/**
+	 * Returns one page of the catalog sorted by the given key, with the same
+	 * columns as getCourseCatalog(). Only the rows on the page are built. The
+	 * sorted order is kept until the catalog changes, so paging through it only
+	 * sorts once.
+	 * 
+	 * @param offset  index of the first row of the page
+	 * @param limit   largest number of rows on the page
+	 * @param sortKey order of the rows
+	 * @return the rows of the page, fewer than limit at the end of the catalog
+	 * @throws IllegalArgumentException if offset or limit is negative or sortKey
+	 *                                  is null
+	 */
+	public String[][] getCourseCatalog(int offset, int limit, CatalogSortKey sortKey) {
+		if (offset < 0 || limit < 0 || sortKey == null) {
+			throw new IllegalArgumentException("Invalid page.");
+		}
+
+		// pick up a new version of the catalog file first
+		applyCatalogChanges();
+
+		int end = (int) Math.min(this.catalog.size(), (long) offset + limit);
+		String[][] page = new String[Math.max(0, end - offset)][];
+		int[] order = sortKey == CatalogSortKey.CATALOG ? null : catalogOrder(sortKey);
+		for (int i = 0; i < page.length; i++) {
+			Course c = this.catalog.get(order == null ? offset + i : order[offset + i]);
+			page[i] = new String[] { c.getName(), c.getSection(), c.getTitle(), c.getMeetingString() };
+		}
+		return page;
+	}
+
+	/**
+	 * Returns the catalog positions in the order of the given key, sorting them if
+	 * the catalog changed since the order was last used.
+	 * 
+	 * @param sortKey order to return
+	 * @return catalog positions in order
+	 */
+	private int[] catalogOrder(CatalogSortKey sortKey) {
+		int[] order = this.catalogOrders[sortKey.ordinal()];
+		if (order == null) {
+			Integer[] positions = new Integer[this.catalog.size()];
+			for (int i = 0; i < positions.length; i++) {
+				positions[i] = i;
+			}
+			// a stable sort keeps equal Courses in catalog order
+			Arrays.sort(positions, (a, b) -> sortKey.getComparator().compare(this.catalog.get(a), this.catalog.get(b)));
+			order = new int[positions.length];
+			for (int i = 0; i < order.length; i++) {
+				order[i] = positions[i];
+			}
+			this.catalogOrders[sortKey.ordinal()] = order;
+		}
+		return order;
+	}
+
 	/**
 	 * Creates a 2D array that is supposed to represent a schedule. Schedule will
 	 * contain a lot of information such as course name, course section, title,
-	 * credits, instructorId, and meeting days.
-	 * 
+	 * credits, instructorId, and meeting days. The array is kept until the
+	 * schedule changes, so it must not be modified.
 	 * 
 	 * @return 2D array of the schedule
 	 */
@@ -144,11 +836,17 @@ public class WolfScheduler {
 			return new String[0][0];
 		}
 
+		// the schedule has not changed since the rows were last built
+		else if (this.fullScheduleDisplay != null) {
+			return this.fullScheduleDisplay;
+		}
+
 		else {
 			String[][] fullCatalog = new String[this.schedule.size()][7];
 			for (int i = 0; i < this.schedule.size(); i++) {
 				fullCatalog[i] = this.schedule.get(i).getLongDisplayArray();
 			}
+			this.fullScheduleDisplay = fullCatalog;
 			return fullCatalog;
 		}
 	}
@@ -178,27 +876,104 @@ public class WolfScheduler {
 
 	}
 
+	/**
+	 * Replaces the schedule with one exported by exportSchedule(). Courses in the
+	 * file are resolved against the catalog, and the schedule is trusted to have
+	 * been valid when it was exported so it is not checked for conflicts again.
+	 *
+	 * Lines that are neither a valid Course nor a valid Event are left out and
+	 * counted in the returned report.
+	 *
+	 * @param fileName the name of the file the schedule was exported to
+	 * @return how many lines were read into the schedule and how many were skipped
+	 * @throws IllegalArgumentException if file cannot be read
+	 */
+	public ActivityImportReport importSchedule(String fileName) {
+
+		// pick up a new version of the catalog file first
+		applyCatalogChanges();
+		try {
+			ActivityImportReport report = new ActivityImportReport();
+			this.schedule = ActivityRecordIO.readActivityRecords(fileName, this.catalogIndex, report);
+			scheduleChanged();
+			return report;
+		} catch (IOException e) {
+			throw new IllegalArgumentException("Cannot find file.");
+		}
+	}
+
+	/**
+	 * Returns how many lines of the catalog file became Courses and how many were
+	 * rejected for each reason. The report is empty if the catalog was loaded from
+	 * a catalog snapshot.
+	 * 
+	 * @return the catalog load report
+	 */
+	public CatalogLoadReport getCatalogLoadReport() {
+		return this.loadReport;
+	}
+
+	/**
+	 * Exports the course catalog to a binary catalog snapshot. Passing the snapshot
+	 * to the WolfScheduler constructor later loads the catalog without parsing or
+	 * validating it again.
+	 * 
+	 * @param fileName the name of the file the snapshot is written to
+	 * @throws IllegalArgumentException if file cannot be written to
+	 */
+	public void exportCatalogSnapshot(String fileName) {
+		try {
+			CatalogSnapshotIO.writeCatalogSnapshot(fileName, this.catalog);
+		} catch (IOException e) {
+			throw new IllegalArgumentException("The file cannot be saved.");
+		}
+	}
+
+	/**
+	 * Builds the conflict graph of the course catalog on all available cores. The
+	 * sections of the graph are positions in the catalog, the same as the ordinals
+	 * of getCatalogColumns(). When the catalog is a directory of department
+	 * catalogs, only the departments already read are in the graph.
+	 * 
+	 * @return the conflict graph of the catalog
+	 */
+	public CatalogConflictGraph getCatalogConflictGraph() {
+		return CatalogConflictGraph.build(getCatalogColumns(), Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * Builds the conflict graph of the course catalog and writes it to a file that
+	 * CatalogConflictGraph.read() can load again.
+	 * 
+	 * @param fileName the name of the file the graph is written to
+	 * @throws IllegalArgumentException if file cannot be written to
+	 */
+	public void exportCatalogConflicts(String fileName) {
+		try {
+			getCatalogConflictGraph().write(fileName);
+		} catch (IOException e) {
+			throw new IllegalArgumentException("The file cannot be saved.");
+		}
+	}
+
 	/**
 	 * Gets course from catalog using name and section number
 	 * 
 	 * @param name    name of course
 	 * @param section section of course
-	 * @return the course object corresponding to name and section
+	 * @return the course object corresponding to name and section, or null if it is
+	 *         not in the catalog or its department's file cannot be read
 	 */
 	public Course getCourseFromCatalog(String name, String section) {
 
-		// iterate through course catalog
-		for (int i = 0; i < this.catalog.size(); i++) {
-
-			// check to see if current course has the same name and section
-			// as input name and section
-			if (this.catalog.get(i).getName().equals(name) && this.catalog.get(i).getSection().equals(section)) {
+		// pick up a new version of the catalog file first
+		applyCatalogChanges();
 
-				return this.catalog.get(i);
-			}
-		}
+		// read the course's department first if the catalog is split up
+		loadDepartment(name);
 
-		return null;
+		// look the course up by name and section instead of searching the catalog
+		return this.catalogIndex.get(name + "," + section);
 	}
 
 	/**
@@ -220,21 +995,24 @@ public class WolfScheduler {
 		if (addingCourse == null) {
 			return false;
 		}
-		
+
+			// the occupancy tells up front if anything conflicts, so each activity
+			// is only checked for a conflict when one is known to be there
+			boolean blocked = getBlockingActivity(addingCourse) != null;
+
 			// check for course with same name in schedule
 			for (int i = 0; i < schedule.size(); i++) {
 				
 				if (schedule.get(i).isDuplicate(addingCourse)) {
 					throw new IllegalArgumentException("You are already enrolled in " + name);
 				}
-				try {
-					addingCourse.checkConflict(schedule.get(i));
-				} catch (ConflictException e) {
+				if (blocked && addingCourse.conflictsWith(schedule.get(i))) {
 					throw new IllegalArgumentException("The course cannot be added due to a conflict.");
 				}
 			}
 			// if tests above pass then added to schedule
 			schedule.add(addingCourse);
+			activityAdded(addingCourse);
 			return true;
 		
 
@@ -255,7 +1033,8 @@ public class WolfScheduler {
 		// using a try catch block to catch IndexOutOfBoundExceptions
 		// returns false if caught
 		try {
-			schedule.remove(idx);
+			Activity removed = schedule.remove(idx);
+			activityRemoved(removed);
 			return true; // returns true if successfully removed
 		} catch (IndexOutOfBoundsException e) {
 			return false;
@@ -272,6 +1051,7 @@ public class WolfScheduler {
 		// also need to make sure scheduled activities.length == 0
 		// you can do so similar to the original version of this method
 		this.schedule = new ArrayList<Activity>();
+		scheduleChanged();
 		// simply create a new empty array list but this time with activity
 
 	}
@@ -311,19 +1091,20 @@ public class WolfScheduler {
 
 		Event event = new Event(eventTitle, eventMeetingDays, eventStartTime, eventEndTime, eventDetails);
 
+		boolean blocked = getBlockingActivity(event) != null;
+
 		// iterate through event schedule to see if there is duplicate
 		for (int i = 0; i < schedule.size(); i++) {
 			if (event.isDuplicate(schedule.get(i))) {
 				throw new IllegalArgumentException("You have already created an event called " + event.getTitle());
 			}
 
-			try {
-				event.checkConflict(schedule.get(i));
-			} catch (IllegalArgumentException e) {
-				throw new IllegalArgumentException("The event cannot be added due to a conflict.");
+			if (blocked && event.conflictsWith(schedule.get(i))) {
+				throw new ConflictException();
 			}
 		}
 		schedule.add(event);
+		activityAdded(event);
 		return true;
 	}
 
@@ -9,6 +9,7 @@ import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.awt.event.MouseEvent;
 import java.io.File;
+import java.util.ArrayList;
 
 import javax.swing.BorderFactory;
 import javax.swing.JButton;
@@ -23,9 +24,12 @@ import javax.swing.JScrollPane;
 import javax.swing.JTable;
 import javax.swing.JTextField;
 import javax.swing.ListSelectionModel;
+import javax.swing.SwingUtilities;
 import javax.swing.border.Border;
 import javax.swing.border.EtchedBorder;
 import javax.swing.border.TitledBorder;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
 import javax.swing.event.ListSelectionEvent;
 import javax.swing.event.ListSelectionListener;
 import javax.swing.table.AbstractTableModel;
@@ -56,6 +60,10 @@ public class WolfSchedulerGUI extends JFrame {
 	private SchedulerPanel pnlScheduler;
 	/** Schedule panel */
 	private SchedulePanel pnlSchedule;
+	/** Number of catalog rows fetched at a time by the catalog table */
+	private static final int PAGE_SIZE = 100;
+	/** Largest number of search matches shown in the catalog table */
+	private static final int SEARCH_LIMIT = 100;
 	/** Reference to {@link CardLayout} for panel.  Stacks all of the panels. */
 	private CardLayout cardLayout;
 	/** Reference to the WolfScheduler */
@@ -157,6 +165,10 @@ public class WolfSchedulerGUI extends JFrame {
 		private JTable tableCatalog;
 		/** JTable for displaying the schdule of Courses */
 		private JTable tableSchedule;
+		/** Text field for searching the catalog by name or title */
+		private JTextField txtSearch;
+		/** Check box for showing only the catalog sections that can be added */
+		private JCheckBox cbAddable;
 		/** TableModel for catalog */
 		private CourseTableModel catalogTableModel;
 		/** TableModel for schedule */
@@ -285,6 +297,38 @@ public class WolfSchedulerGUI extends JFrame {
 			pnlActions.setBorder(borderActions);
 			pnlActions.setToolTipText("Scheduler Actions");
 						
+			//Set up Catalog search, the catalog table filters as the user types
+			txtSearch = new JTextField(20);
+			txtSearch.getDocument().addDocumentListener(new DocumentListener() {
+
+				@Override
+				public void insertUpdate(DocumentEvent e) {
+					catalogTableModel.updateData();
+				}
+
+				@Override
+				public void removeUpdate(DocumentEvent e) {
+					catalogTableModel.updateData();
+				}
+
+				@Override
+				public void changedUpdate(DocumentEvent e) {
+					// only plain text changes matter
+				}
+				
+			});
+			
+			//Set up the addable filter, the catalog table only shows sections that fit
+			cbAddable = new JCheckBox("Only addable sections");
+			cbAddable.addActionListener(new ActionListener() {
+
+				@Override
+				public void actionPerformed(ActionEvent e) {
+					catalogTableModel.updateData();
+				}
+				
+			});
+			
 			//Set up Catalog table
 			catalogTableModel = new CourseTableModel(true);
 			tableCatalog = new JTable(catalogTableModel) {
@@ -311,6 +355,9 @@ public class WolfSchedulerGUI extends JFrame {
 
 				@Override
 				public void valueChanged(ListSelectionEvent e) {
+					if (tableCatalog.getSelectedRow() == -1) {
+						return;
+					}
 					String name = tableCatalog.getValueAt(tableCatalog.getSelectedRow(), 0).toString();
 					String section = tableCatalog.getValueAt(tableCatalog.getSelectedRow(), 1).toString();
 					Course c = scheduler.getCourseFromCatalog(name, section);
@@ -321,9 +368,18 @@ public class WolfSchedulerGUI extends JFrame {
 			
 			JScrollPane scrollCatalog = new JScrollPane(tableCatalog);
 			
+			JPanel pnlSearch = new JPanel();
+			pnlSearch.setLayout(new GridLayout(1, 3));
+			pnlSearch.add(new JLabel("Search: "));
+			pnlSearch.add(txtSearch);
+			pnlSearch.add(cbAddable);
+			JPanel pnlCatalog = new JPanel(new BorderLayout());
+			pnlCatalog.add(pnlSearch, BorderLayout.NORTH);
+			pnlCatalog.add(scrollCatalog, BorderLayout.CENTER);
+			
 			TitledBorder borderCatalog = BorderFactory.createTitledBorder(lowerEtched, "Course Catalog");
-			scrollCatalog.setBorder(borderCatalog);
-			scrollCatalog.setToolTipText("Course Catalog");
+			pnlCatalog.setBorder(borderCatalog);
+			pnlCatalog.setToolTipText("Course Catalog");
 			
 			//Set up Schedule table
 			scheduleTableModel = new CourseTableModel(false);
@@ -501,7 +557,7 @@ public class WolfSchedulerGUI extends JFrame {
 			pnlAddEvent.setBorder(borderAddEvent);
 			pnlAddEvent.setToolTipText("AddEvent");
 			
-			add(scrollCatalog);
+			add(pnlCatalog);
 			add(pnlActions);
 			add(scrollSchedule);
 			add(pnlCourseDetails);
@@ -700,6 +756,14 @@ public class WolfSchedulerGUI extends JFrame {
 			private Object [][] data;
 			/** Boolean flag if the model applies to the catalog or schedule */
 			private boolean catalog;
+			/** True if the rows are fetched from the catalog a page at a time */
+			private boolean paged;
+			/** Number of rows in the catalog when paged */
+			private int pagedRowCount;
+			/** Index of the first row of the page held */
+			private int pageStart;
+			/** Rows of the page held, null if no page was fetched yet */
+			private String [][] page;
 			
 			/**
 			 * Constructs the {@link CourseTableModel} by requesting the latest information
@@ -724,6 +788,8 @@ public class WolfSchedulerGUI extends JFrame {
 			 * @return the number of rows in the table.
 			 */
 			public int getRowCount() {
+				if (paged)
+					return pagedRowCount;
 				if (data == null) 
 					return 0;
 				return data.length;
@@ -745,6 +811,8 @@ public class WolfSchedulerGUI extends JFrame {
 			 * @return the data at the given location.
 			 */
 			public Object getValueAt(int row, int col) {
+				if (paged)
+					return getPagedValueAt(row, col);
 				if (data == null)
 					return null;
 				try {
@@ -761,19 +829,76 @@ public class WolfSchedulerGUI extends JFrame {
 			 * @param col location to modify the data.
 			 */
 			public void setValueAt(Object value, int row, int col) {
+				if (paged)
+					return;
 				data[row][col] = value;
 				fireTableCellUpdated(row, col);
 			}
 			
 			/**
-			 * Updates the given model with {@link Course} information from the {@link WolfScheduler}.
+			 * Updates the given model with {@link Course} information from the {@link WolfScheduler}
+			 * and tells the table, since the rows or the number of rows may have changed.
 			 */
 			private void updateData() {
-				if (catalog) {
-					data = scheduler.getCourseCatalog();
+				paged = false;
+				if (catalog && txtSearch.getText().length() > 0) {
+					ArrayList<Course> matches = cbAddable.isSelected()
+							? scheduler.searchAddableCourses(txtSearch.getText(), SEARCH_LIMIT)
+							: scheduler.searchCourses(txtSearch.getText(), SEARCH_LIMIT);
+					data = new Object[matches.size()][];
+					for (int i = 0; i < matches.size(); i++) {
+						data[i] = matches.get(i).getShortDisplayArray();
+					}
+				} else if (catalog && cbAddable.isSelected()) {
+					ArrayList<Course> addable = scheduler.getAddableCourses();
+					data = new Object[addable.size()][];
+					for (int i = 0; i < addable.size(); i++) {
+						data[i] = addable.get(i).getShortDisplayArray();
+					}
+				} else if (catalog) {
+					//only the rows on screen are fetched, a page at a time
+					paged = true;
+					data = null;
+					page = null;
+					pagedRowCount = scheduler.getCatalogSize();
 				} else {
 					data = scheduler.getScheduledActivities();
 				}
+				fireTableDataChanged();
+			}
+			
+			/**
+			 * Returns the catalog data at the given {row, col} index, fetching the page
+			 * holding the row if it is not the page already held. The table is told if
+			 * the number of rows changed because the catalog was reloaded.
+			 * @param row row index
+			 * @param col column index
+			 * @return the data at the given location.
+			 */
+			private Object getPagedValueAt(int row, int col) {
+				if (row < 0 || row >= pagedRowCount || col < 0 || col >= columnNames.length)
+					return null;
+				if (page == null || row < pageStart || row >= pageStart + page.length) {
+					pageStart = row / PAGE_SIZE * PAGE_SIZE;
+					page = scheduler.getCourseCatalog(pageStart, PAGE_SIZE);
+					//the catalog file may have been reloaded while fetching the page
+					int size = scheduler.getCatalogSize();
+					if (size != pagedRowCount) {
+						pagedRowCount = size;
+						//the table is painting, so tell it once painting is done
+						SwingUtilities.invokeLater(new Runnable() {
+
+							@Override
+							public void run() {
+								fireTableDataChanged();
+							}
+							
+						});
+					}
+				}
+				if (row - pageStart >= page.length)
+					return null;
+				return page[row - pageStart][col];
 			}
 		}
 	}